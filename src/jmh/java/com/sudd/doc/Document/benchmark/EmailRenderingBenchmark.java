@@ -0,0 +1,63 @@
+package com.sudd.doc.Document.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sudd.doc.Document.Mail.EmailTemplates;
+import com.sudd.doc.Document.Mail.EmailTemplates.Kind;
+import com.sudd.doc.Document.utils.EmailUtils;
+
+/**
+ * Compiled EmailTemplates against the string concatenation and
+ * String.formatted renderers in EmailUtils.
+ * Run with -Djmh.args="EmailRendering -prof gc" to compare allocations too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailRenderingBenchmark {
+
+    private static final String NAME = "Jane Doe";
+    private static final String HOST = "https://securedoc.com";
+    private static final String KEY = "3f1c2a9e-6b7d-4e0f-9a8b-1c2d3e4f5a6b";
+
+    private EmailTemplates templates;
+
+    @Setup
+    public void setUp() {
+        templates = new EmailTemplates();
+    }
+
+    @Benchmark
+    public String emailUtilsText() {
+        return EmailUtils.getEmailMessage(NAME, HOST, KEY);
+    }
+
+    @Benchmark
+    public String emailUtilsHtml() {
+        return EmailUtils.getVerificationHtml(NAME, HOST, KEY);
+    }
+
+    @Benchmark
+    public String emailUtilsTextAndHtml() {
+        return EmailUtils.getEmailMessage(NAME, HOST, KEY) + EmailUtils.getVerificationHtml(NAME, HOST, KEY);
+    }
+
+    @Benchmark
+    public EmailTemplates.Rendered templatesTextAndHtml() {
+        return templates.render(Kind.ACCOUNT_VERIFICATION, NAME, EmailUtils.getverificationUrl(HOST, KEY));
+    }
+}
@@ -0,0 +1,84 @@
+package com.sudd.doc.Document.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.AlternativeJdkIdGenerator;
+
+import com.sudd.doc.Document.Enum.Authority;
+import com.sudd.doc.Document.entity.ConfirmationEntity;
+import com.sudd.doc.Document.entity.CredentialEntity;
+import com.sudd.doc.Document.entity.DocumentEntity;
+import com.sudd.doc.Document.entity.RolesEntity;
+import com.sudd.doc.Document.entity.UserEntity;
+import com.sudd.doc.Document.utils.UserUtils;
+import com.sudd.doc.Document.utils.UuidGenerator;
+
+/**
+ * Building the entities of a registration and an upload outside of any
+ * persistence context: UserUtils.createUserEntity and the constructors of the
+ * Auditable subclasses. The referenceId they get on persist is measured by
+ * referenceId, against the AlternativeJdkIdGenerator each one used to create.
+ * Run with -Djmh.args="EntityCreation -prof gc" for allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityCreationBenchmark {
+
+    private RolesEntity role;
+    private UserEntity user;
+
+    @Setup
+    public void setUp() {
+        role = new RolesEntity(Authority.USER.name(), Authority.USER);
+        user = createUserEntity();
+    }
+
+    @Benchmark
+    public UserEntity createUserEntity() {
+        return UserUtils.createUserEntity("Jane", "Doe", "jane.doe@securedoc.com", role);
+    }
+
+    @Benchmark
+    public CredentialEntity credentialEntity() {
+        return new CredentialEntity(user, "password");
+    }
+
+    @Benchmark
+    public ConfirmationEntity confirmationEntity() {
+        return new ConfirmationEntity(user);
+    }
+
+    @Benchmark
+    public DocumentEntity documentEntity() {
+        return DocumentEntity.builder().documentId("3f1c2a9e-6b7d-4e0f-9a8b-1c2d3e4f5a6b").name("report.pdf").build();
+    }
+
+    @Benchmark
+    public RolesEntity rolesEntity() {
+        return new RolesEntity();
+    }
+
+    @Benchmark
+    public String referenceId() {
+        return UuidGenerator.generate().toString();
+    }
+
+    @Benchmark
+    public String alternativeJdkIdGenerator() {
+        return new AlternativeJdkIdGenerator().generateId().toString();
+    }
+}
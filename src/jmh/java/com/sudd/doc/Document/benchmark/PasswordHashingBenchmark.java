@@ -0,0 +1,71 @@
+package com.sudd.doc.Document.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.sudd.doc.Document.Security.PasswordHasher;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * A login storm: 32 request threads checking passwords through
+ * PasswordHasher with two hashing threads. The sampled latency percentiles
+ * are those of the whole call, a refused (503) check and the caller's
+ * backoff included; with a bounded queue the p99 stays near
+ * queue-capacity / threads hashes instead of growing with the number of
+ * callers. queueCapacity 1000 is the unbounded baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(32)
+public class PasswordHashingBenchmark {
+
+    private static final long REFUSED_BACKOFF_MILLIS = 100;
+
+    @Param({ "8", "1000" })
+    public int queueCapacity;
+
+    private PasswordHasher hasher;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        hasher = new PasswordHasher(new SimpleMeterRegistry(), 10, 2, queueCapacity, Duration.ofMinutes(1), 1, 1);
+        hash = hasher.encode("correct horse");
+    }
+
+    @TearDown
+    public void tearDown() {
+        hasher.stop();
+    }
+
+    @Benchmark
+    public boolean login() throws InterruptedException {
+        try {
+            return hasher.matches("correct horse", hash);
+        } catch (ResponseStatusException refused) {
+            // a client backs off before retrying, a tight retry loop would only compete for the CPU
+            Thread.sleep(REFUSED_BACKOFF_MILLIS);
+            return false;
+        }
+    }
+}
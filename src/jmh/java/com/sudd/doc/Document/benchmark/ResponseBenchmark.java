@@ -0,0 +1,104 @@
+package com.sudd.doc.Document.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sudd.doc.Document.Domain.Response;
+import com.sudd.doc.Document.utils.RequestUtils;
+
+/**
+ * The envelope every controller returns: RequestUtils.getResponse and the
+ * Jackson serialisation of the Response, separately and together. The
+ * ObjectMapper is configured like the spring.jackson section of
+ * application.yaml. Run with -Djmh.args="Response -prof gc" for allocations.
+ *
+ * legacy and envelope write a whole response into a reused stream, as the
+ * message converter does onto the servlet output: legacy is the envelope
+ * before ResponseSerializer (LocalDateTime.now().toString(), a second
+ * HttpStatus.valueOf, a bean-serialised NON_DEFAULT record), envelope the
+ * current one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseBenchmark {
+
+    private static final Map<String, String> DATA = Map.of("user", "3f1c2a9e-6b7d-4e0f-9a8b-1c2d3e4f5a6b");
+
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public record LegacyResponse(String time, int code, String path, HttpStatus status, String message,
+            String exception, Map<?, ?> data) {
+    }
+
+    private MockHttpServletRequest request;
+    private ObjectMapper objectMapper;
+    private Response response;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+
+    @Setup
+    public void setUp() {
+        request = new MockHttpServletRequest("POST", "/user/register");
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .featuresToDisable(SerializationFeature.FAIL_ON_EMPTY_BEANS, SerializationFeature.WRITE_DATE_KEYS_AS_TIMESTAMPS,
+                        SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .featuresToEnable(SerializationFeature.CLOSE_CLOSEABLE)
+                .build();
+        response = getResponse();
+    }
+
+    @Benchmark
+    public Response getResponse() {
+        return RequestUtils.getResponse(request, DATA, "Account created", HttpStatus.CREATED);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] getResponseAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(getResponse());
+    }
+
+    @Benchmark
+    public int legacy() throws IOException {
+        out.reset();
+        var status = HttpStatus.CREATED;
+        objectMapper.writeValue(out, new LegacyResponse(LocalDateTime.now().toString(), status.value(),
+                request.getRequestURI(), HttpStatus.valueOf(status.value()), "Account created", "", DATA));
+        return out.size();
+    }
+
+    @Benchmark
+    public int envelope() throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, getResponse());
+        return out.size();
+    }
+}
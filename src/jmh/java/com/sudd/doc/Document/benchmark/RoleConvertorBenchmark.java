@@ -0,0 +1,56 @@
+package com.sudd.doc.Document.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sudd.doc.Document.Enum.Authority;
+import com.sudd.doc.Document.Enum.Converter.RoleConvertor;
+
+/**
+ * RoleConvertor in both directions. Hibernate does not run it for roles
+ * today: RolesEntity.authority is @Enumerated(STRING), which takes
+ * precedence over the auto-applied converter. This measures the
+ * Authority.fromValue lookup a value-mapped column would pay per row. The
+ * column value is copied so the lookup hashes a string that is not the
+ * interned constant, as it is for a value read from a ResultSet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoleConvertorBenchmark {
+
+    @Param({ "USER", "SUPER_ADMIN" })
+    public Authority authority;
+
+    private final RoleConvertor convertor = new RoleConvertor();
+    private String column;
+
+    @Setup
+    public void setUp() {
+        column = new String(convertor.convertToDatabaseColumn(authority).toCharArray());
+    }
+
+    @Benchmark
+    public String toDatabaseColumn() {
+        return convertor.convertToDatabaseColumn(authority);
+    }
+
+    @Benchmark
+    public Authority toEntityAttribute() {
+        return convertor.convertToEntityAttribute(column);
+    }
+}
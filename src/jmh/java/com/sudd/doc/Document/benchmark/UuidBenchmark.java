@@ -0,0 +1,44 @@
+package com.sudd.doc.Document.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sudd.doc.Document.utils.UuidGenerator;
+
+/**
+ * Generating user ids and confirmation keys from several threads at once:
+ * UUID.randomUUID() and its JVM-wide SecureRandom against UuidGenerator.
+ * Run with -Djmh.args="Uuid -t 8" to change the thread count.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class UuidBenchmark {
+
+    @Benchmark
+    public UUID randomUuid() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID uuidV7() {
+        return UuidGenerator.generate();
+    }
+
+    @Benchmark
+    public UUID uuidV7Secure() {
+        return UuidGenerator.generateSecure();
+    }
+}
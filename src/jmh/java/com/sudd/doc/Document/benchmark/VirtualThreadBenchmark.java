@@ -0,0 +1,111 @@
+package com.sudd.doc.Document.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to serve a burst of concurrent requests that each wait on a database
+ * round trip and an SMTP exchange, on Tomcat's default pool of 200 platform
+ * threads against one virtual thread per request (spring.threads.virtual.enabled).
+ *
+ * The waits are sleeps: what matters is whether a waiting request holds a
+ * thread. blocking=lock waits under a ReentrantLock, as the PostgreSQL driver
+ * does; blocking=synchronized waits inside a synchronized block, as
+ * SMTPTransport does, which pins the virtual thread to its carrier.
+ * Run with -Djmh.args="VirtualThread".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+    private static final int REQUESTS = 2000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final long DATABASE_LATENCY_MILLIS = 2;
+    private static final long SMTP_LATENCY_MILLIS = 10;
+
+    @Param({ "platform", "virtual" })
+    public String threads;
+
+    @Param({ "lock", "synchronized" })
+    public String blocking;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = threads.equals("virtual") ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public int burst() throws Exception {
+        var pinning = blocking.equals("synchronized");
+        List<Future<?>> requests = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            requests.add(executor.submit(() -> handle(pinning)));
+        }
+        for (var request : requests) {
+            request.get();
+        }
+        return requests.size();
+    }
+
+    private static void handle(boolean pinning) {
+        var lock = new ReentrantLock();
+        lock.lock();
+        try {
+            sleep(DATABASE_LATENCY_MILLIS);
+        } finally {
+            lock.unlock();
+        }
+        if (pinning) {
+            synchronized (lock) {
+                sleep(SMTP_LATENCY_MILLIS);
+            }
+        } else {
+            lock.lock();
+            try {
+                sleep(SMTP_LATENCY_MILLIS);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
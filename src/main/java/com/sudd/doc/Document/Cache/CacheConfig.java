@@ -0,0 +1,33 @@
+package com.sudd.doc.Document.Cache;
+
+import java.io.IOException;
+
+import javax.cache.CacheManager;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Hands Hibernate's JCache region factory a CacheManager of its own. One
+ * obtained through javax.cache.Caching is shared by every
+ * EntityManagerFactory in the JVM, and closing one (as a test context does
+ * on shutdown) would close the caches of all others.
+ */
+@Configuration(proxyBeanMethods = false)
+public class CacheConfig {
+
+    @Bean
+    CacheManager secondLevelCacheManager() throws IOException {
+        var provider = new CaffeineCachingProvider();
+        return provider.getCacheManager(new ClassPathResource("caffeine.conf").getURI(), provider.getDefaultClassLoader());
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put("hibernate.javax.cache.cache_manager", secondLevelCacheManager);
+    }
+}
@@ -0,0 +1,130 @@
+package com.sudd.doc.Document.Cache;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sudd.doc.Document.Enum.Authority;
+import com.sudd.doc.Document.entity.RolesEntity;
+import com.sudd.doc.Document.repository.RoleRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory copy of the ROLES table. All roles are loaded once at startup and
+ * served by name or Authority without touching the database.
+ *
+ * The whole table is held in one immutable snapshot that is swapped
+ * atomically: lookups never lock, and a write through RoleRepository (see
+ * RoleCacheInvalidator) drops the snapshot once its transaction commits so the
+ * next lookup reloads it. A lookup for an unknown name also reloads once, in
+ * case the role was added by another node.
+ *
+ * Every invalidation bumps a generation and each snapshot remembers the
+ * generation it was read under. A reload that raced a role write (read the
+ * table before the commit, finished after it) is therefore never installed,
+ * and never served if it slipped in.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoleCache {
+
+    private final RoleRepository roleRepository;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    private record Snapshot(long generation, Map<String, RolesEntity> byName, Map<Authority, RolesEntity> byAuthority) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        log.info("Role cache loaded with {} roles", load().byName().size());
+    }
+
+    public Optional<RolesEntity> getByName(String name) {
+        var key = name.toUpperCase(Locale.ROOT);
+        var current = current();
+        if (current != null && current.byName().containsKey(key)) {
+            hits.increment();
+            return Optional.of(current.byName().get(key));
+        }
+        misses.increment();
+        return Optional.ofNullable(load().byName().get(key));
+    }
+
+    public Optional<RolesEntity> getByAuthority(Authority authority) {
+        var current = current();
+        if (current != null && current.byAuthority().containsKey(authority)) {
+            hits.increment();
+            return Optional.of(current.byAuthority().get(authority));
+        }
+        misses.increment();
+        return Optional.ofNullable(load().byAuthority().get(authority));
+    }
+
+    // called on every role write; waits for the commit so a concurrent reload cannot cache uncommitted data
+    public void invalidate() {
+        reset();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    reset();
+                }
+            });
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private void reset() {
+        generation.incrementAndGet();
+        snapshot.set(null);
+    }
+
+    // the installed snapshot, unless an invalidation happened since it was read
+    private Snapshot current() {
+        var current = snapshot.get();
+        return current != null && current.generation() == generation.get() ? current : null;
+    }
+
+    private Snapshot load() {
+        long readAt = generation.get();
+        Map<String, RolesEntity> byName = new HashMap<>();
+        Map<Authority, RolesEntity> byAuthority = new EnumMap<>(Authority.class);
+        for (var role : roleRepository.findAll()) {
+            byName.put(role.getName().toUpperCase(Locale.ROOT), role);
+            if (role.getAuthority() != null) {
+                byAuthority.putIfAbsent(role.getAuthority(), role);
+            }
+        }
+        var loaded = new Snapshot(readAt, Map.copyOf(byName), byAuthority);
+        // install only if nothing was invalidated while reading, and never over a newer snapshot
+        var installed = snapshot.get();
+        if (generation.get() == readAt && (installed == null || installed.generation() <= readAt)) {
+            snapshot.compareAndSet(installed, loaded);
+        }
+        return loaded;
+    }
+}
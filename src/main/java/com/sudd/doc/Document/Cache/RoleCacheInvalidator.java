@@ -0,0 +1,32 @@
+package com.sudd.doc.Document.Cache;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.sudd.doc.Document.entity.RolesEntity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener on RolesEntity. Hibernate obtains it from the Spring
+ * context, the RoleCache is looked up lazily because the cache itself needs
+ * the EntityManagerFactory this listener is registered with.
+ */
+@Component
+public class RoleCacheInvalidator {
+
+    private final ObjectProvider<RoleCache> roleCache;
+
+    public RoleCacheInvalidator(ObjectProvider<RoleCache> roleCache) {
+        this.roleCache = roleCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onRoleWrite(RolesEntity role) {
+        roleCache.ifAvailable(RoleCache::invalidate);
+    }
+}
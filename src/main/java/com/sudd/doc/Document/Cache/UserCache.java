@@ -0,0 +1,94 @@
+package com.sudd.doc.Document.Cache;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sudd.doc.Document.entity.UserEntity;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * The second-level cache regions that serve user lookups without a query:
+ * UserEntity and RolesEntity by id, UserEntity by its userId natural id, and
+ * the email to id mapping kept by UserRepositoryCustomImpl. Regions are
+ * Caffeine caches of the CacheConfig cache manager, sized in caffeine.conf.
+ *
+ * Writes made through Hibernate keep the regions in step themselves. A
+ * statement that changes USERS behind Hibernate's back (native or JDBC) must
+ * call evict for the rows it touched.
+ */
+@Component
+public class UserCache {
+
+    // region names, configured in caffeine.conf
+    public static final String USER_REGION = "users";
+    public static final String USER_ID_REGION = "user-id";
+    public static final String EMAIL_REGION = "user-email";
+    public static final String ROLE_REGION = "roles";
+
+    private static final List<String> REGIONS = List.of(USER_REGION, USER_ID_REGION, EMAIL_REGION, ROLE_REGION);
+
+    private final jakarta.persistence.Cache cache;
+    private final CacheManager cacheManager;
+    private final Cache<Object, Object> emails;
+
+    public record Statistics(String region, long size, long hits, long misses, double hitRate) {
+    }
+
+    public UserCache(EntityManagerFactory entityManagerFactory, CacheManager secondLevelCacheManager) {
+        this.cache = entityManagerFactory.getCache();
+        this.cacheManager = secondLevelCacheManager;
+        this.emails = secondLevelCacheManager.getCache(EMAIL_REGION);
+    }
+
+    public Long getIdByEmail(String normalizedEmail) {
+        return (Long) emails.get(normalizedEmail);
+    }
+
+    public void putEmail(String normalizedEmail, long id) {
+        emails.put(normalizedEmail, id);
+    }
+
+    public void removeEmail(String normalizedEmail) {
+        emails.remove(normalizedEmail);
+    }
+
+    // now, and again once the surrounding transaction ends, so a concurrent read cannot cache the old row meanwhile
+    public void evict(long userId) {
+        cache.evict(UserEntity.class, userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(UserEntity.class, userId);
+                }
+            });
+        }
+    }
+
+    public List<Statistics> getStatistics() {
+        return getRegions().entrySet().stream().map(region -> {
+            var caffeine = region.getValue();
+            var stats = caffeine.stats();
+            return new Statistics(region.getKey(), caffeine.estimatedSize(), stats.hitCount(), stats.missCount(),
+                    stats.hitRate());
+        }).toList();
+    }
+
+    // the Caffeine cache behind each region, by region name; ApplicationMetrics exports their statistics
+    public Map<String, com.github.benmanes.caffeine.cache.Cache<?, ?>> getRegions() {
+        Map<String, com.github.benmanes.caffeine.cache.Cache<?, ?>> regions = new LinkedHashMap<>();
+        for (var region : REGIONS) {
+            regions.put(region, cacheManager.getCache(region).unwrap(com.github.benmanes.caffeine.cache.Cache.class));
+        }
+        return regions;
+    }
+}
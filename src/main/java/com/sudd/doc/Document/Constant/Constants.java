@@ -7,4 +7,6 @@ public class Constants {
     public static final String ADMIN_AUTHORITIES = "user:create,user:read,user:update,document:create,document:read,document:update,document:delete";
     public static final String SUPER_ADMIN_AUTHORITIES = "user:create,user:read,user:update,user:delete,document:create,document:read,document:update,document:delete";
     public static final String MANAGER_AUTHORITIES = "document:create,document:read,document:update,document:delete";
+    // largest page a listing or search endpoint returns
+    public static final int MAX_PAGE_SIZE = 100;
 }
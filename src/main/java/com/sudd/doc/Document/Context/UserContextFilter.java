@@ -0,0 +1,33 @@
+package com.sudd.doc.Document.Context;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.sudd.doc.Document.Domain.RequestContext;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// fills RequestContext once per request from the session; never creates a session, and always clears
+// the context afterwards so a pooled request thread does not carry the user into the next request
+@Component
+public class UserContextFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var session = request.getSession(false);
+        if (session != null && session.getAttribute(RequestContext.USER_ID_ATTRIBUTE) instanceof Long userId) {
+            RequestContext.setUserId(userId);
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestContext.start();
+        }
+    }
+}
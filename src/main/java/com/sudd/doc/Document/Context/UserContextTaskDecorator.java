@@ -0,0 +1,17 @@
+package com.sudd.doc.Document.Context;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import com.sudd.doc.Document.Domain.RequestContext;
+
+// Boot applies the single TaskDecorator bean to applicationTaskExecutor, platform or virtual threads,
+// so @Async work is audited as the user who started it
+@Component
+public class UserContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return RequestContext.wrap(runnable);
+    }
+}
@@ -0,0 +1,81 @@
+package com.sudd.doc.Document.Controller;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sudd.doc.Document.Domain.Response;
+import com.sudd.doc.Document.service.DocumentService;
+import com.sudd.doc.Document.utils.FileDownloadUtils;
+import com.sudd.doc.Document.utils.RequestUtils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = { "/document" })
+public class DocumentResource {
+    private final DocumentService documentService;
+
+    // the raw body is the file, streamed to storage instead of going through multipart parsing
+    @PostMapping(path = "/upload", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Response> uploadDocument(@RequestParam("name") String name,
+            @RequestParam(name = "description", required = false) String description, HttpServletRequest request)
+            throws IOException {
+        var document = documentService.upload(request.getInputStream(), name, description);
+        return ResponseEntity.status(HttpStatus.CREATED).body(RequestUtils.getResponse(request,
+                Map.of("document", document), "Document uploaded", HttpStatus.CREATED));
+    }
+
+    // newest first; pass nextCursor from the previous page to continue
+    @GetMapping("/list")
+    public ResponseEntity<Response> getDocuments(@RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size, HttpServletRequest request) {
+        var page = documentService.getDocuments(cursor, size);
+        return ResponseEntity.ok().body(RequestUtils.getResponse(request, Map.of("page", page),
+                "Documents retrieved", HttpStatus.OK));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Response> searchDocuments(@RequestParam("query") String query,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size, HttpServletRequest request) {
+        var page = documentService.search(query, cursor, size);
+        return ResponseEntity.ok().body(RequestUtils.getResponse(request, Map.of("page", page),
+                "Documents retrieved", HttpStatus.OK));
+    }
+
+    @GetMapping("/{documentId}")
+    public ResponseEntity<Response> getDocument(@PathVariable("documentId") String documentId, HttpServletRequest request) {
+        var document = documentService.getDocument(documentId);
+        return ResponseEntity.ok().body(RequestUtils.getResponse(request, Map.of("document", document),
+                "Document retrieved", HttpStatus.OK));
+    }
+
+    // supports single Range requests, e.g. resuming a download
+    @GetMapping("/{documentId}/content")
+    public void downloadDocument(@PathVariable("documentId") String documentId, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        var document = documentService.getDocument(documentId);
+        FileDownloadUtils.write(request, response, documentService.getContent(document), document.getSize(),
+                document.getName());
+    }
+
+    @DeleteMapping("/{documentId}")
+    public ResponseEntity<Response> deleteDocument(@PathVariable("documentId") String documentId, HttpServletRequest request) {
+        documentService.deleteDocument(documentId);
+        return ResponseEntity.ok().body(RequestUtils.getResponse(request, Map.of(), "Document deleted", HttpStatus.OK));
+    }
+}
@@ -0,0 +1,76 @@
+package com.sudd.doc.Document.Controller;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sudd.doc.Document.Domain.Response;
+import com.sudd.doc.Document.service.UploadService;
+import com.sudd.doc.Document.utils.RequestUtils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Resumable upload protocol:
+ * 1. POST /document/uploads?name=..&size=..  -> uploadId, chunkSize, chunkCount
+ * 2. PUT  /document/uploads/{uploadId}/chunks/{index} with the raw chunk, in any order and in parallel
+ * 3. GET  /document/uploads/{uploadId}       -> the chunks still missing, after a broken connection
+ * 4. POST /document/uploads/{uploadId}/commit -> the document
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = { "/document/uploads" })
+public class DocumentUploadResource {
+    private final UploadService uploadService;
+
+    @PostMapping
+    public ResponseEntity<Response> createUpload(@RequestParam("name") String name,
+            @RequestParam(name = "description", required = false) String description, @RequestParam("size") long size,
+            HttpServletRequest request) {
+        var upload = uploadService.createUpload(name, description, size);
+        return ResponseEntity.status(HttpStatus.CREATED).body(RequestUtils.getResponse(request,
+                Map.of("upload", upload), "Upload created", HttpStatus.CREATED));
+    }
+
+    @PutMapping(path = "/{uploadId}/chunks/{index}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Response> writeChunk(@PathVariable("uploadId") String uploadId,
+            @PathVariable("index") int index, HttpServletRequest request) throws IOException {
+        var upload = uploadService.writeChunk(uploadId, index, request.getInputStream());
+        return ResponseEntity.ok().body(RequestUtils.getResponse(request, Map.of("upload", upload),
+                "Chunk " + index + " stored", HttpStatus.OK));
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<Response> getUpload(@PathVariable("uploadId") String uploadId, HttpServletRequest request) {
+        var upload = uploadService.getUpload(uploadId);
+        return ResponseEntity.ok().body(RequestUtils.getResponse(request, Map.of("upload", upload),
+                "Upload retrieved", HttpStatus.OK));
+    }
+
+    @PostMapping("/{uploadId}/commit")
+    public ResponseEntity<Response> commitUpload(@PathVariable("uploadId") String uploadId, HttpServletRequest request) {
+        var document = uploadService.commitUpload(uploadId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(RequestUtils.getResponse(request,
+                Map.of("document", document), "Document uploaded", HttpStatus.CREATED));
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Response> abortUpload(@PathVariable("uploadId") String uploadId, HttpServletRequest request) {
+        uploadService.abortUpload(uploadId);
+        return ResponseEntity.ok().body(RequestUtils.getResponse(request, emptyMap(), "Upload cancelled", HttpStatus.OK));
+    }
+}
@@ -3,8 +3,12 @@ package com.sudd.doc.Document.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.sudd.doc.Document.Domain.RequestContext;
 import com.sudd.doc.Document.Domain.Response;
+import com.sudd.doc.Document.DtoRequest.LoginRequest;
 import com.sudd.doc.Document.DtoRequest.UserRequest;
+import com.sudd.doc.Document.service.AuthenticationService;
+import com.sudd.doc.Document.service.UserImportService;
 import com.sudd.doc.Document.service.UserService;
 import com.sudd.doc.Document.utils.RequestUtils;
 
@@ -12,9 +16,12 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import java.io.IOException;
 import java.net.URI;
+import java.util.Map;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -28,6 +35,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 @RequestMapping(path = { "/user" })
 public class UserResource {
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final AuthenticationService authenticationService;
 
     @PostMapping("/register")
     public ResponseEntity<Response> saveUser(@RequestBody @Valid UserRequest user, HttpServletRequest request) {
@@ -38,6 +47,35 @@ public class UserResource {
                         "Account created check your Email to enable your account ", HttpStatus.CREATED));
     }
 
+    // Bulk import - the body is read as a stream, never bound to a request object
+    @PostMapping(path = "/import", consumes = { "text/csv", "application/x-ndjson" })
+    public ResponseEntity<Response> importUsers(HttpServletRequest request) throws IOException {
+        var result = userImportService.importUsers(request.getInputStream(), MediaType.parseMediaType(request.getContentType()));
+        return ResponseEntity.ok().body(RequestUtils.getResponse(request,
+                Map.of("imported", result.imported(), "failed", result.failed(), "errors", result.errors()),
+                "Users imported, verification emails are queued", HttpStatus.OK));
+    }
+
+    // signs the user in to the HTTP session, see UserContextFilter; 503 when the hashing pool is saturated
+    @PostMapping("/login")
+    public ResponseEntity<Response> login(@RequestBody @Valid LoginRequest login, HttpServletRequest request) {
+        var user = authenticationService.authenticate(login.getEmail(), login.getPassword()).orElse(null);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(RequestUtils.getResponse(request, emptyMap(),
+                    "Invalid email or password", HttpStatus.UNAUTHORIZED));
+        }
+        if (!user.isEnabled() || !user.isAccountNonLocked()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(RequestUtils.getResponse(request, emptyMap(),
+                    "Account is not enabled", HttpStatus.FORBIDDEN));
+        }
+        // a new session id on sign-in, so an id planted before it is worth nothing
+        if (request.getSession(false) != null) {
+            request.changeSessionId();
+        }
+        request.getSession().setAttribute(RequestContext.USER_ID_ATTRIBUTE, user.getId());
+        return ResponseEntity.ok().body(RequestUtils.getResponse(request, Map.of("userId", user.getUserId()),
+                "Signed in", HttpStatus.OK));
+    }
 
     // User Account Verification - Pending 
     @GetMapping("/verify/account")
@@ -47,6 +85,15 @@ public class UserResource {
                         "Account Verified Successfully!", HttpStatus.OK));
     }
 
+    // newest first; pass nextCursor from the previous page to continue
+    @GetMapping("/list")
+    public ResponseEntity<Response> getUsers(@RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size, HttpServletRequest request) {
+        var page = userService.getUsers(cursor, size);
+        return ResponseEntity.ok().body(RequestUtils.getResponse(request, Map.of("page", page),
+                "Users retrieved", HttpStatus.OK));
+    }
+
     // continue from here
     private URI getUri() {
         return URI.create("");
@@ -0,0 +1,19 @@
+package com.sudd.doc.Document.Domain;
+
+import java.util.List;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// one page of a keyset-paginated result; pass nextCursor back to get the following page, null on the last one
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CursorPage<T>(List<T> content, String nextCursor) {
+
+    // rows are fetched with limit + 1, the extra row only tells that there is a next page
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, String> cursor) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        return new CursorPage<>(rows.subList(0, limit), cursor.apply(rows.get(limit - 1)));
+    }
+}
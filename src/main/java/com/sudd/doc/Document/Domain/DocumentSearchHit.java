@@ -0,0 +1,10 @@
+package com.sudd.doc.Document.Domain;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+// a search result: the listed columns of DOCUMENTS and the relevance the results are ordered by
+public record DocumentSearchHit(@JsonIgnore long id, String documentId, String name, String description,
+        String extension, long size, String formattedSize, String icon, LocalDateTime createdAt, float rank) {
+}
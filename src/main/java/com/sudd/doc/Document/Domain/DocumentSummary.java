@@ -0,0 +1,10 @@
+package com.sudd.doc.Document.Domain;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+// a row of the document listing
+public record DocumentSummary(@JsonIgnore long id, String documentId, String name, String description,
+        String extension, long size, String formattedSize, String icon, LocalDateTime createdAt) {
+}
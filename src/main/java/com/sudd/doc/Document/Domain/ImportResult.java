@@ -0,0 +1,14 @@
+package com.sudd.doc.Document.Domain;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import. Only the first errors are kept (see
+ * securedoc.import.max-reported-errors) so the report stays small however
+ * large the uploaded file is; `failed` always holds the full count.
+ */
+public record ImportResult(long imported, long failed, List<RowError> errors) {
+
+    public record RowError(long line, String email, String message) {
+    }
+}
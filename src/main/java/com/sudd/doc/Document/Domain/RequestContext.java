@@ -12,16 +12,25 @@ package com.sudd.doc.Document.Domain;
  * - This way, we can access the user ID anywhere during the request lifecycle.
  *
  * How it works:
- * - setUserId(): Called when a request starts to store the user's ID.
+ * - UserContextFilter sets the user once per request, from the HTTP
+ *   session, and clears it when the request completes.
  * - getUserId(): Called anywhere in the app to get the current user's ID.
+ * - wrap(): Carries the caller's user into a task that runs on another thread
+ *   (UserContextTaskDecorator does this for the async executors).
  * - start(): Clears the ThreadLocal data to prevent memory leaks.
  *
- * Always clear the ThreadLocal (via start or at request completion) when the
- * request ends.
+ * Work that belongs to no request (anonymous requests, scheduled jobs, the
+ * outbox) is done as SYSTEM_USER_ID, see getUserIdOrSystem().
  */
 
  // static values so we can call them anywhere 
 public class RequestContext {
+
+    // the id recorded in createdBy / updatedBy when no user is signed in
+    public static final long SYSTEM_USER_ID = 0L;
+    // HTTP session attribute holding the signed-in user's id
+    public static final String USER_ID_ATTRIBUTE = "securedoc.userId";
+
     private static final ThreadLocal<Long> USER_ID = new ThreadLocal<>();
 
     // CONSTRUCTOR 
@@ -41,4 +50,33 @@ public class RequestContext {
 
     }
 
+    // createdBy / updatedBy: the current user, the system user outside of a signed-in request
+    public static long getUserIdOrSystem() {
+        var userId = USER_ID.get();
+        return userId != null ? userId : SYSTEM_USER_ID;
+    }
+
+    // runs task with the user captured now, whatever thread it ends up on. The thread's own value is
+    // put back afterwards, so a pooled thread never keeps it and a caller-runs task does not lose its own
+    public static Runnable wrap(Runnable task) {
+        var userId = USER_ID.get();
+        return () -> {
+            var previous = USER_ID.get();
+            set(userId);
+            try {
+                task.run();
+            } finally {
+                set(previous);
+            }
+        };
+    }
+
+    private static void set(Long userId) {
+        if (userId == null) {
+            USER_ID.remove();
+        } else {
+            USER_ID.set(userId);
+        }
+    }
+
 }
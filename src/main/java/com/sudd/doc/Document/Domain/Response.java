@@ -4,9 +4,10 @@ import java.util.Map;
 
 import org.springframework.http.HttpStatus;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
-@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+// written by ResponseSerializer, which leaves out empty fields as @JsonInclude(NON_DEFAULT) did
+@JsonSerialize(using = ResponseSerializer.class)
 public record Response(String time, int code, String path, HttpStatus status, String message, String exception,
         Map<?, ?> data) {
 
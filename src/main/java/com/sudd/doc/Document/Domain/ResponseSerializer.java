@@ -0,0 +1,75 @@
+package com.sudd.doc.Document.Domain;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Writes the Response envelope field by field onto the generator, which the
+ * message converter opens on the servlet output stream. Field names and
+ * status names are encoded once and copied as bytes; no bean introspection,
+ * property filtering or boxing happens per response. Only data goes through
+ * the regular serializers.
+ *
+ * A null, zero, empty string or empty map is left out, the output of the
+ * @JsonInclude(NON_DEFAULT) record this replaces.
+ */
+public final class ResponseSerializer extends StdSerializer<Response> {
+
+    private static final SerializedString TIME = new SerializedString("time");
+    private static final SerializedString CODE = new SerializedString("code");
+    private static final SerializedString PATH = new SerializedString("path");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString EXCEPTION = new SerializedString("exception");
+    private static final SerializedString DATA = new SerializedString("data");
+
+    private static final Map<HttpStatus, SerializedString> STATUS_NAMES = new EnumMap<>(HttpStatus.class);
+
+    static {
+        for (var status : HttpStatus.values()) {
+            STATUS_NAMES.put(status, new SerializedString(status.name()));
+        }
+    }
+
+    public ResponseSerializer() {
+        super(Response.class);
+    }
+
+    @Override
+    public void serialize(Response response, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(response);
+        writeString(generator, TIME, response.time());
+        if (response.code() != 0) {
+            generator.writeFieldName(CODE);
+            generator.writeNumber(response.code());
+        }
+        writeString(generator, PATH, response.path());
+        if (response.status() != null) {
+            generator.writeFieldName(STATUS);
+            generator.writeString(STATUS_NAMES.get(response.status()));
+        }
+        writeString(generator, MESSAGE, response.message());
+        writeString(generator, EXCEPTION, response.exception());
+        if (response.data() != null && !response.data().isEmpty()) {
+            generator.writeFieldName(DATA);
+            provider.defaultSerializeValue(response.data(), generator);
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator generator, SerializableString name, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            generator.writeFieldName(name);
+            generator.writeString(value);
+        }
+    }
+}
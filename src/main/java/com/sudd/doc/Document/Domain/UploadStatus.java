@@ -0,0 +1,8 @@
+package com.sudd.doc.Document.Domain;
+
+import java.util.List;
+
+// progress of a resumable upload: chunk i covers bytes [i * chunkSize, min((i + 1) * chunkSize, size))
+public record UploadStatus(String uploadId, String name, long size, long chunkSize, int chunkCount, int received,
+        List<Integer> missing) {
+}
@@ -0,0 +1,11 @@
+package com.sudd.doc.Document.Domain;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+// a row of the user listing: selected columns only, no credentials or role entity behind it
+public record UserSummary(@JsonIgnore long id, UUID userId, String firstName, String lastName, String email,
+        String role, boolean enabled, LocalDateTime createdAt) {
+}
@@ -0,0 +1,19 @@
+package com.sudd.doc.Document.DtoRequest;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class LoginRequest {
+
+    @NotEmpty(message = "Email cannot be empty")
+    private String email;
+
+    @NotEmpty(message = "Password cannot be empty")
+    private String password;
+}
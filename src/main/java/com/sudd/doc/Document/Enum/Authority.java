@@ -1,8 +1,15 @@
 package com.sudd.doc.Document.Enum;
 import static com.sudd.doc.Document.Constant.Constants.ADMIN_AUTHORITIES;
+import static com.sudd.doc.Document.Constant.Constants.AUTHORITY_DELIMITER;
 import static com.sudd.doc.Document.Constant.Constants.MANAGER_AUTHORITIES;
 import static com.sudd.doc.Document.Constant.Constants.SUPER_ADMIN_AUTHORITIES;
-import static  com.sudd.doc.Document.Constant.Constants.USER_AUTHORITIES;;
+import static  com.sudd.doc.Document.Constant.Constants.USER_AUTHORITIES;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 
 public enum Authority {
 
@@ -11,15 +18,56 @@ public enum Authority {
   SUPER_ADMIN(SUPER_ADMIN_AUTHORITIES),
   MANAGER(MANAGER_AUTHORITIES);
 
+  // first declared wins for identical values (USER and MANAGER), as the old linear scan did
+  private static final Map<String, Authority> BY_VALUE = new HashMap<>();
+
+  static {
+    for (var authority : values()) {
+      BY_VALUE.putIfAbsent(authority.value, authority);
+    }
+  }
 
   private final String value;
+  // parsed once here so permission checks are a single AND instead of splitting the value string
+  private final long permissionMask;
+  private final Set<Permission> permissions;
 
   private Authority(String value) {
     this.value = value;
+    var parsed = EnumSet.noneOf(Permission.class);
+    for (var permission : value.split(AUTHORITY_DELIMITER)) {
+      parsed.add(Permission.fromValue(permission));
+    }
+    this.permissions = Collections.unmodifiableSet(parsed);
+    this.permissionMask = Permission.maskOf(parsed.toArray(Permission[]::new));
 }
 
   public String getValue() {
     return this.value;
 }
+
+  public Set<Permission> getPermissions() {
+    return this.permissions;
+  }
+
+  public long getPermissionMask() {
+    return this.permissionMask;
+  }
+
+  public boolean hasPermission(Permission permission) {
+    return (permissionMask & permission.getMask()) != 0;
+  }
+
+  public boolean hasAllPermissions(long mask) {
+    return (permissionMask & mask) == mask;
+  }
+
+  public static Authority fromValue(String value) {
+    var authority = BY_VALUE.get(value);
+    if (authority == null) {
+      throw new IllegalArgumentException("Unknown authority " + value);
+    }
+    return authority;
+  }
  
 }
@@ -1,7 +1,5 @@
 package com.sudd.doc.Document.Enum.Converter;
 
-import java.util.stream.Stream;
-
 import com.sudd.doc.Document.Enum.Authority;
 
 import jakarta.persistence.AttributeConverter;
@@ -26,9 +24,8 @@ public class RoleConvertor implements AttributeConverter<Authority , String> {
         if(code == null){
             return null;
         }
-        return Stream.of(Authority.values()).filter(authority->authority.getValue().equals(code))
-        .findFirst()
-        .orElseThrow(IllegalArgumentException::new);
+        // constant-time map lookup, throws IllegalArgumentException for an unknown value
+        return Authority.fromValue(code);
     }
     
 }
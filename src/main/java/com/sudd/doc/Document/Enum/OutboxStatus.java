@@ -0,0 +1,7 @@
+package com.sudd.doc.Document.Enum;
+
+public enum OutboxStatus {
+    PENDING,
+    // gave up after securedoc.outbox.max-attempts, kept for inspection
+    FAILED
+}
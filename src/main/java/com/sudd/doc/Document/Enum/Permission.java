@@ -0,0 +1,54 @@
+package com.sudd.doc.Document.Enum;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// one bit per permission, an Authority's permissions are the OR of these masks
+public enum Permission {
+
+  USER_CREATE("user:create"),
+  USER_READ("user:read"),
+  USER_UPDATE("user:update"),
+  USER_DELETE("user:delete"),
+  DOCUMENT_CREATE("document:create"),
+  DOCUMENT_READ("document:read"),
+  DOCUMENT_UPDATE("document:update"),
+  DOCUMENT_DELETE("document:delete");
+
+  private static final Map<String, Permission> BY_VALUE = Arrays.stream(values())
+      .collect(Collectors.toUnmodifiableMap(Permission::getValue, Function.identity()));
+
+  private final String value;
+  private final long mask;
+
+  private Permission(String value) {
+    this.value = value;
+    this.mask = 1L << ordinal();
+  }
+
+  public String getValue() {
+    return this.value;
+  }
+
+  public long getMask() {
+    return this.mask;
+  }
+
+  public static Permission fromValue(String value) {
+    var permission = BY_VALUE.get(value.trim());
+    if (permission == null) {
+      throw new IllegalArgumentException("Unknown permission " + value);
+    }
+    return permission;
+  }
+
+  public static long maskOf(Permission... permissions) {
+    long mask = 0L;
+    for (var permission : permissions) {
+      mask |= permission.mask;
+    }
+    return mask;
+  }
+}
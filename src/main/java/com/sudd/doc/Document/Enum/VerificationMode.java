@@ -0,0 +1,8 @@
+package com.sudd.doc.Document.Enum;
+
+public enum VerificationMode {
+    // a random key stored in the confirmations table
+    DATABASE,
+    // an HMAC-signed token carrying the user id and expiry, nothing stored
+    SIGNED
+}
@@ -17,13 +17,13 @@ public class UserEventListener {
     @EventListener
     public void onUserEvent(UserEvent userEvent){
         switch (userEvent.getEventType()) {
-            case REGISTRATION -> emailService.sendNewAccountEmail(userEvent.getUserEntity().getFirstName(),
+            case REGISTRATION -> userEvent.setDelivery(emailService.sendNewAccountEmail(userEvent.getUserEntity().getFirstName(),
             userEvent.getUserEntity().getEmail(),
-            (String)userEvent.getData().get("key"));
+            (String)userEvent.getData().get("key")));
 
-            case RESETPASSWORD -> emailService.sendPasswordResetEmail(userEvent.getUserEntity().getFirstName(),
+            case RESETPASSWORD -> userEvent.setDelivery(emailService.sendPasswordResetEmail(userEvent.getUserEntity().getFirstName(),
             userEvent.getUserEntity().getEmail(),
-            (String)userEvent.getData().get("key"));
+            (String)userEvent.getData().get("key")));
             
             default -> {}
             
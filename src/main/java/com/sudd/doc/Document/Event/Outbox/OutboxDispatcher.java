@@ -0,0 +1,201 @@
+package com.sudd.doc.Document.Event.Outbox;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.sudd.doc.Document.Exception.ApiException;
+import com.sudd.doc.Document.entity.OutboxEntity;
+import com.sudd.doc.Document.entity.UserEntity;
+import com.sudd.doc.Document.repository.UserRepository;
+import com.sudd.doc.Document.service.OutboxService;
+import com.sudd.doc.Document.utils.UserEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the outbox table in the background. Every worker thread polls on its
+ * own, claims a batch (see OutboxRepository#claim) and publishes each row as a
+ * UserEvent. The listeners hand their emails to MailDispatcher without waiting,
+ * so the whole batch is queued on the pooled SMTP connections at once; the
+ * worker then waits up to securedoc.mail.send-timeout for all of them, deletes
+ * the rows that were accepted and reschedules each failed or timed-out row on
+ * its own. A timed-out send is cancelled, so a message still queued is not sent
+ * after its row was handed back for a retry. A full batch is followed
+ * immediately by the next one, so a backlog drains without waiting for the poll
+ * interval.
+ *
+ * Delivery is at-least-once: a node dying after sending but before deleting
+ * the row sends it again once the lease expires. Rows are deleted or
+ * rescheduled only while this worker still holds the claim, so the lease
+ * (securedoc.outbox.lease) must outlast a batch: a slower worker then never
+ * overwrites the outcome of the one that re-claimed its rows.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private final OutboxService outboxService;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher publisher;
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final boolean virtualThreads;
+    private final Duration sendTimeout;
+    private final Duration lease;
+    private final MeterRegistry meterRegistry;
+    private ScheduledExecutorService executor;
+
+    private record Dispatched(OutboxEntity message, CompletableFuture<Void> delivery) {
+    }
+
+    public OutboxDispatcher(OutboxService outboxService, UserRepository userRepository,
+            ApplicationEventPublisher publisher,
+            @Value("${securedoc.outbox.enabled:true}") boolean enabled,
+            @Value("${securedoc.outbox.workers:2}") int workers,
+            @Value("${securedoc.outbox.batch-size:100}") int batchSize,
+            @Value("${securedoc.outbox.poll-interval:1s}") Duration pollInterval,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${securedoc.mail.send-timeout:60s}") Duration sendTimeout,
+            @Value("${securedoc.outbox.lease:5m}") Duration lease,
+            MeterRegistry meterRegistry) {
+        this.outboxService = outboxService;
+        this.userRepository = userRepository;
+        this.publisher = publisher;
+        this.enabled = enabled;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.virtualThreads = virtualThreads;
+        this.sendTimeout = sendTimeout;
+        this.lease = lease;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        // a batch takes at most one send timeout; past the lease its rows could be re-claimed and sent twice
+        if (lease.compareTo(sendTimeout.multipliedBy(2)) < 0) {
+            throw new IllegalStateException("securedoc.outbox.lease (" + lease
+                    + ") must be at least twice securedoc.mail.send-timeout (" + sendTimeout + ")");
+        }
+        // a worker mostly waits on the database and on MailDispatcher, which a virtual thread does without a carrier
+        var threadFactory = virtualThreads ? Thread.ofVirtual().name("outbox-", 1).factory()
+                : new CustomizableThreadFactory("outbox-");
+        // executor.* metrics with name=outbox: active workers and the time each drain takes
+        executor = ExecutorServiceMetrics.monitor(meterRegistry, Executors.newScheduledThreadPool(workers, threadFactory),
+                "outbox");
+        for (int i = 0; i < workers; i++) {
+            executor.scheduleWithFixedDelay(this::drain, pollInterval.toMillis(), pollInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+        log.info("Outbox dispatcher started with {} {} workers", workers, virtualThreads ? "virtual" : "platform");
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (dispatchBatch() == batchSize && !executor.isShutdown()) {
+                // keep going while the outbox is backed up
+            }
+        } catch (Exception exception) {
+            // never let an exception cancel the scheduled task
+            log.error("Outbox dispatch failed: {}", exception.getMessage());
+        }
+    }
+
+    int dispatchBatch() {
+        var claimed = outboxService.claim(batchSize);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+        Map<Long, UserEntity> users = userRepository.findAllById(claimed.stream().map(OutboxEntity::getUserId).toList())
+                .stream().collect(Collectors.toMap(UserEntity::getId, Function.identity()));
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<Dispatched> dispatched = new ArrayList<>(claimed.size());
+        for (var message : claimed) {
+            // a full mail queue makes every submit wait for offer-timeout: stop before the batch outlives the lease
+            if (System.nanoTime() - deadline > 0) {
+                dispatched.add(new Dispatched(message,
+                        CompletableFuture.failedFuture(new ApiException("Not submitted within " + sendTimeout))));
+                continue;
+            }
+            try {
+                var user = users.get(message.getUserId());
+                // a missing user was deleted after the event was written, nothing left to deliver
+                CompletableFuture<Void> delivery = null;
+                if (user != null) {
+                    var event = new UserEvent(user, message.getEventType(), outboxService.fromPayload(message.getPayload()));
+                    publisher.publishEvent(event);
+                    delivery = event.getDelivery();
+                }
+                dispatched.add(new Dispatched(message,
+                        delivery != null ? delivery : CompletableFuture.completedFuture(null)));
+            } catch (Exception exception) {
+                dispatched.add(new Dispatched(message, CompletableFuture.failedFuture(exception)));
+            }
+        }
+
+        List<OutboxEntity> delivered = new ArrayList<>(claimed.size());
+        for (var sent : dispatched) {
+            var error = await(sent.delivery(), deadline);
+            if (error == null) {
+                delivered.add(sent.message());
+            } else {
+                log.warn("Outbox message {} failed on attempt {}: {}", sent.message().getId(),
+                        sent.message().getAttempts(), error);
+                outboxService.failed(sent.message(), error);
+            }
+        }
+        outboxService.delivered(delivered);
+        return claimed.size();
+    }
+
+    // null once delivered, otherwise the reason it was not; a delivery still pending at the deadline is cancelled
+    private String await(CompletableFuture<Void> delivery, long deadline) {
+        try {
+            delivery.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return null;
+        } catch (TimeoutException exception) {
+            delivery.cancel(false);
+            return "Not accepted within " + sendTimeout;
+        } catch (ExecutionException exception) {
+            return exception.getCause().getMessage();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            delivery.cancel(false);
+            return "Interrupted";
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.sudd.doc.Document.Job;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sudd.doc.Document.repository.BlobRepository;
+import com.sudd.doc.Document.utils.DocumentUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deletes blobs no document references any more. Each batch of batch-size
+ * rows is locked, its files removed and the rows deleted in one transaction;
+ * an upload of the same content meanwhile waits on the row lock and then
+ * stores the file again, so a blob is never deleted from under a new
+ * reference.
+ */
+@Slf4j
+@Component
+public class BlobCollectorJob {
+
+    private final BlobRepository blobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path root;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public BlobCollectorJob(BlobRepository blobRepository, TransactionTemplate transactionTemplate,
+            @Value("${securedoc.storage.location:${user.home}/securedoc/documents}") Path root,
+            @Value("${securedoc.storage.gc.enabled:true}") boolean enabled,
+            @Value("${securedoc.storage.gc.batch-size:500}") int batchSize) {
+        this.blobRepository = blobRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.root = root.toAbsolutePath().normalize();
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${securedoc.storage.gc.interval:10m}",
+            fixedDelayString = "${securedoc.storage.gc.interval:10m}")
+    public void run() {
+        if (enabled) {
+            collect();
+        }
+    }
+
+    // returns the number of blobs removed
+    public long collect() {
+        long collected = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> {
+                var hashes = blobRepository.lockUnreferenced(batchSize);
+                if (!hashes.isEmpty()) {
+                    hashes.forEach(this::deleteFile);
+                    blobRepository.delete(hashes);
+                }
+                return hashes.size();
+            });
+            collected += deleted;
+        } while (deleted == batchSize);
+        if (collected > 0) {
+            log.info("Collected {} unreferenced blobs", collected);
+        }
+        return collected;
+    }
+
+    private void deleteFile(String hash) {
+        var path = DocumentUtils.getBlobPath(root, hash);
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException exception) {
+            log.warn("Unable to delete {}: {}", path, exception.getMessage());
+        }
+    }
+}
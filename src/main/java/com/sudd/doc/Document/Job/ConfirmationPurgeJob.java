@@ -0,0 +1,59 @@
+package com.sudd.doc.Document.Job;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.sudd.doc.Document.repository.ConfirmationRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deletes confirmations older than securedoc.confirmation.ttl. Rows go in
+ * chunks of chunk-size, each chunk its own transaction, so the job never
+ * holds many row locks at once or writes one huge WAL record, however large
+ * the backlog is.
+ */
+@Slf4j
+@Component
+public class ConfirmationPurgeJob {
+
+    private final ConfirmationRepository confirmationRepository;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final int chunkSize;
+
+    public ConfirmationPurgeJob(ConfirmationRepository confirmationRepository,
+            @Value("${securedoc.confirmation.purge.enabled:true}") boolean enabled,
+            @Value("${securedoc.confirmation.ttl:24h}") Duration ttl,
+            @Value("${securedoc.confirmation.purge.chunk-size:1000}") int chunkSize) {
+        this.confirmationRepository = confirmationRepository;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(initialDelayString = "${securedoc.confirmation.purge.interval:1h}",
+            fixedDelayString = "${securedoc.confirmation.purge.interval:1h}")
+    public void run() {
+        if (enabled) {
+            purge();
+        }
+    }
+
+    // returns the number of rows removed
+    public long purge() {
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = confirmationRepository.deleteExpired(ttl.toSeconds(), chunkSize);
+            purged += deleted;
+        } while (deleted == chunkSize);
+        if (purged > 0) {
+            log.info("Purged {} expired confirmations", purged);
+        }
+        return purged;
+    }
+}
@@ -0,0 +1,84 @@
+package com.sudd.doc.Document.Mail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An email template parsed once into literal segments and {{placeholder}}
+ * slots. Rendering only appends the segments and the values in order, there
+ * is no scanning, regex or format string work per message.
+ */
+public final class EmailTemplate {
+
+    // literals.length == slots.length + 1, rendering alternates literal, value, literal, ...
+    private final String[] literals;
+    private final int[] slots;
+    private final boolean html;
+    private final int literalLength;
+
+    private EmailTemplate(String[] literals, int[] slots, boolean html) {
+        this.literals = literals;
+        this.slots = slots;
+        this.html = html;
+        int length = 0;
+        for (var literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * @param variables placeholder names, a placeholder renders the value at the same index
+     * @param html      values are HTML-escaped when true
+     */
+    public static EmailTemplate compile(String source, List<String> variables, boolean html) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int from = 0;
+        int open;
+        while ((open = source.indexOf("{{", from)) >= 0) {
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            var variable = source.substring(open + 2, close).trim();
+            int slot = variables.indexOf(variable);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Unknown placeholder {{" + variable + "}}");
+            }
+            literals.add(source.substring(from, open));
+            slots.add(slot);
+            from = close + 2;
+        }
+        literals.add(source.substring(from));
+        return new EmailTemplate(literals.toArray(String[]::new), slots.stream().mapToInt(Integer::intValue).toArray(), html);
+    }
+
+    public void renderTo(StringBuilder out, String... values) {
+        out.ensureCapacity(out.length() + literalLength + 64 * slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            var value = values[slots[i]];
+            if (html) {
+                escapeHtml(out, value);
+            } else {
+                out.append(value);
+            }
+        }
+        out.append(literals[slots.length]);
+    }
+
+    private static void escapeHtml(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
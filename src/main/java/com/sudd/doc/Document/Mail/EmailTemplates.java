@@ -0,0 +1,76 @@
+package com.sudd.doc.Document.Mail;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * The plain text and HTML bodies of every email, compiled from
+ * classpath:email/ once at startup. render() writes both alternatives into a
+ * per-thread buffer that is reused across messages.
+ */
+@Component
+public class EmailTemplates {
+
+    public enum Kind {
+        ACCOUNT_VERIFICATION("account-verification"),
+        PASSWORD_RESET("password-reset");
+
+        private final String file;
+
+        Kind(String file) {
+            this.file = file;
+        }
+    }
+
+    public record Rendered(String text, String html) {
+    }
+
+    private static final List<String> VARIABLES = List.of("name", "url");
+    private static final int BUFFER_SIZE = 8 * 1024;
+    // a buffer grown by an unusually large message is not kept around
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(BUFFER_SIZE));
+
+    private final Map<Kind, EmailTemplate> text = new EnumMap<>(Kind.class);
+    private final Map<Kind, EmailTemplate> html = new EnumMap<>(Kind.class);
+
+    public EmailTemplates() {
+        for (var kind : Kind.values()) {
+            text.put(kind, EmailTemplate.compile(load(kind.file + ".txt"), VARIABLES, false));
+            html.put(kind, EmailTemplate.compile(load(kind.file + ".html"), VARIABLES, true));
+        }
+    }
+
+    public Rendered render(Kind kind, String name, String url) {
+        var buffer = BUFFER.get();
+        try {
+            text.get(kind).renderTo(buffer, name, url);
+            var plain = buffer.toString();
+            buffer.setLength(0);
+            html.get(kind).renderTo(buffer, name, url);
+            return new Rendered(plain, buffer.toString());
+        } finally {
+            buffer.setLength(0);
+            if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    private static String load(String file) {
+        try (var input = new ClassPathResource("email/" + file).getInputStream()) {
+            var source = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+            // the file's final newline is not part of the message
+            return source.endsWith("\n") ? source.substring(0, source.length() - 1) : source;
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to load email template " + file, exception);
+        }
+    }
+}
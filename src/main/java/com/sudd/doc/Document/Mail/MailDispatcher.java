@@ -0,0 +1,242 @@
+package com.sudd.doc.Document.Mail;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.sudd.doc.Document.Exception.ApiException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends mail over a small pool of long-lived SMTP connections.
+ *
+ * - submit() puts the message on a bounded queue and returns a future that
+ *   completes once the server accepted it. When the queue stays full for
+ *   offer-timeout the message is rejected (backpressure) instead of piling up.
+ * - each worker thread owns one Transport and keeps it open across messages,
+ *   so the TCP connect, STARTTLS handshake and AUTH are paid once per
+ *   max-messages-per-connection instead of once per email. A connection idle
+ *   for idle-timeout is closed, a broken one is reopened for the next message.
+ * - all workers share one rate limit (messages per second, 0 = unlimited).
+ *
+ * Queue depth, sent/failed counts, connections opened and the
+ * enqueue-to-accepted latency are kept in lock-free counters, exported as
+ * metrics by ApplicationMetrics.
+ */
+@Slf4j
+@Component
+public class MailDispatcher {
+
+    private record PendingMail(MimeMessage message, long enqueuedAt, CompletableFuture<Void> result) {
+    }
+
+    private final JavaMailSenderImpl sender;
+    private final int connections;
+    private final int maxMessagesPerConnection;
+    private final Duration idleTimeout;
+    private final Duration offerTimeout;
+    private final BlockingQueue<PendingMail> queue;
+    private final RateLimiter rateLimiter;
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder connectionsOpened = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0L);
+    private volatile boolean running;
+    private ExecutorService workers;
+
+    // the implementation rather than JavaMailSender: the workers open their own Transport from its session and settings
+    public MailDispatcher(JavaMailSenderImpl sender,
+            @Value("${securedoc.mail.connections:4}") int connections,
+            @Value("${securedoc.mail.queue-capacity:1000}") int queueCapacity,
+            @Value("${securedoc.mail.rate-limit:0}") double rateLimit,
+            @Value("${securedoc.mail.max-messages-per-connection:100}") int maxMessagesPerConnection,
+            @Value("${securedoc.mail.idle-timeout:30s}") Duration idleTimeout,
+            @Value("${securedoc.mail.offer-timeout:5s}") Duration offerTimeout) {
+        this.sender = sender;
+        this.connections = connections;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeout = idleTimeout;
+        this.offerTimeout = offerTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.rateLimiter = new RateLimiter(rateLimit);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        // platform threads even with spring.threads.virtual.enabled: SMTPTransport does its socket I/O inside
+        // synchronized methods, which would pin a virtual thread's carrier for every send
+        workers = Executors.newFixedThreadPool(connections, new CustomizableThreadFactory("mail-"));
+        for (int i = 0; i < connections; i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        // let the workers drain what is queued, then wake the ones idling in poll()
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!queue.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        workers.shutdownNow();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+        PendingMail mail;
+        while ((mail = queue.poll()) != null) {
+            mail.result().completeExceptionally(new ApiException("Mail dispatcher stopped"));
+        }
+    }
+
+    public CompletableFuture<Void> submit(MimeMessage message) {
+        var mail = new PendingMail(message, System.nanoTime(), new CompletableFuture<>());
+        try {
+            if (!running || !queue.offer(mail, offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                mail.result().completeExceptionally(new ApiException("Mail queue is full"));
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            mail.result().completeExceptionally(exception);
+        }
+        return mail.result();
+    }
+
+    private void work() {
+        Transport transport = null;
+        int sentOnConnection = 0;
+        try {
+            while (running || !queue.isEmpty()) {
+                var mail = queue.poll(idleTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                if (mail == null) {
+                    transport = close(transport);
+                    continue;
+                }
+                if (mail.result().isDone()) {
+                    continue;
+                }
+                rateLimiter.acquire();
+                // cancelled by its sender (timed out) while waiting for the rate limit
+                if (mail.result().isDone()) {
+                    continue;
+                }
+                try {
+                    // no isConnected() probe, it costs a NOOP round trip per message: a connection idle for
+                    // idle-timeout was closed above, and one the server dropped fails the send and is reopened
+                    if (transport == null || sentOnConnection >= maxMessagesPerConnection) {
+                        close(transport);
+                        transport = connect();
+                        sentOnConnection = 0;
+                    }
+                    var message = mail.message();
+                    message.saveChanges();
+                    transport.sendMessage(message, message.getAllRecipients());
+                    sentOnConnection++;
+                    sent.increment();
+                    mail.result().complete(null);
+                } catch (MessagingException exception) {
+                    failed.increment();
+                    // a rejected address leaves the session usable, anything else gets a fresh connection
+                    if (!(exception instanceof SendFailedException)) {
+                        transport = close(transport);
+                    }
+                    mail.result().completeExceptionally(exception);
+                } finally {
+                    var latency = System.nanoTime() - mail.enqueuedAt();
+                    totalLatencyNanos.add(latency);
+                    maxLatencyNanos.accumulate(latency);
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close(transport);
+        }
+    }
+
+    private Transport connect() throws MessagingException {
+        var session = sender.getSession();
+        // resolved the same way JavaMailSenderImpl#getTransport does
+        var protocol = sender.getProtocol() != null ? sender.getProtocol()
+                : session.getProperty("mail.transport.protocol");
+        var transport = session.getTransport(protocol != null ? protocol : JavaMailSenderImpl.DEFAULT_PROTOCOL);
+        transport.connect(sender.getHost(), sender.getPort(), sender.getUsername(), sender.getPassword());
+        connectionsOpened.increment();
+        return transport;
+    }
+
+    private Transport close(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException exception) {
+                log.debug("Closing SMTP connection failed: {}", exception.getMessage());
+            }
+        }
+        return null;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getConnectionsOpened() {
+        return connectionsOpened.sum();
+    }
+
+    // sent or failed
+    public long getProcessed() {
+        return sent.sum() + failed.sum();
+    }
+
+    // enqueue-to-accepted latency summed over all processed messages
+    public Duration getTotalLatency() {
+        return Duration.ofNanos(totalLatencyNanos.sum());
+    }
+
+    // enqueue-to-accepted latency over all processed messages
+    public Duration getAverageLatency() {
+        long count = sent.sum() + failed.sum();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(totalLatencyNanos.sum() / count);
+    }
+
+    public Duration getMaxLatency() {
+        return Duration.ofNanos(maxLatencyNanos.get());
+    }
+}
@@ -0,0 +1,94 @@
+package com.sudd.doc.Document.Monitor;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.sudd.doc.Document.Cache.RoleCache;
+import com.sudd.doc.Document.Cache.UserCache;
+import com.sudd.doc.Document.Mail.MailDispatcher;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Exports the statistics the components already keep in lock-free counters:
+ * the user and role caches, MailDispatcher and PinnedThreadMonitor. Every
+ * meter here is a function of those counters and is read when the registry
+ * is scraped, so nothing is added to the paths that update them.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplicationMetrics implements MeterBinder {
+
+    private static final String ROLE_CACHE = "role-cache";
+
+    private final UserCache userCache;
+    private final RoleCache roleCache;
+    private final MailDispatcher mailDispatcher;
+    private final PinnedThreadMonitor pinnedThreadMonitor;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCaches(registry);
+        bindMail(registry);
+        bindPinnedThreads(registry);
+    }
+
+    // cache.gets{result=hit|miss}, cache.size, cache.evictions... per second-level cache region
+    private void bindCaches(MeterRegistry registry) {
+        userCache.getRegions().forEach((region, cache) -> CaffeineCacheMetrics.monitor(registry, cache, region));
+        FunctionCounter.builder("cache.gets", roleCache, RoleCache::getHits)
+                .description("Lookups served from the in-memory roles")
+                .tags("cache", ROLE_CACHE, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", roleCache, RoleCache::getMisses)
+                .description("Lookups that reloaded the roles")
+                .tags("cache", ROLE_CACHE, "result", "miss")
+                .register(registry);
+    }
+
+    private void bindMail(MeterRegistry registry) {
+        Gauge.builder("securedoc.mail.queue.depth", mailDispatcher, MailDispatcher::getQueueDepth)
+                .description("Messages waiting for an SMTP connection")
+                .register(registry);
+        Gauge.builder("securedoc.mail.queue.capacity", mailDispatcher, MailDispatcher::getQueueCapacity)
+                .register(registry);
+        FunctionCounter.builder("securedoc.mail.messages", mailDispatcher, MailDispatcher::getSent)
+                .tag("result", "sent")
+                .register(registry);
+        FunctionCounter.builder("securedoc.mail.messages", mailDispatcher, MailDispatcher::getFailed)
+                .tag("result", "failed")
+                .register(registry);
+        FunctionCounter.builder("securedoc.mail.messages", mailDispatcher, MailDispatcher::getRejected)
+                .description("Messages by outcome, rejected ones found the queue full")
+                .tag("result", "rejected")
+                .register(registry);
+        FunctionCounter.builder("securedoc.mail.connections.opened", mailDispatcher,
+                MailDispatcher::getConnectionsOpened)
+                .register(registry);
+        FunctionTimer.builder("securedoc.mail.latency", mailDispatcher, MailDispatcher::getProcessed,
+                dispatcher -> dispatcher.getTotalLatency().toNanos(), TimeUnit.NANOSECONDS)
+                .description("Time from submit until the SMTP server accepted or refused the message")
+                .register(registry);
+        TimeGauge.builder("securedoc.mail.latency.max", mailDispatcher, TimeUnit.NANOSECONDS,
+                dispatcher -> dispatcher.getMaxLatency().toNanos())
+                .register(registry);
+    }
+
+    private void bindPinnedThreads(MeterRegistry registry) {
+        if (!pinnedThreadMonitor.isEnabled()) {
+            return;
+        }
+        FunctionTimer.builder("securedoc.threads.pinned", pinnedThreadMonitor, PinnedThreadMonitor::getPinnedCount,
+                monitor -> monitor.getPinnedTime().toNanos(), TimeUnit.NANOSECONDS)
+                .description("Virtual threads that blocked while pinned to their carrier")
+                .register(registry);
+    }
+}
@@ -0,0 +1,53 @@
+package com.sudd.doc.Document.Monitor;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * The application's JdbcTemplate, timing each statement into SqlMetrics.
+ * Every query, update and batch passes through applyStatementSettings just
+ * before it executes and through one of the handleWarnings methods right
+ * after, the time in between includes reading the results.
+ */
+public class MeteredJdbcTemplate extends JdbcTemplate {
+
+    // a JdbcTemplate is shared, the start of the statement in flight is kept per thread
+    private static final ThreadLocal<long[]> START = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final SqlMetrics sqlMetrics;
+
+    public MeteredJdbcTemplate(DataSource dataSource, SqlMetrics sqlMetrics) {
+        super(dataSource);
+        this.sqlMetrics = sqlMetrics;
+    }
+
+    @Override
+    protected void applyStatementSettings(Statement statement) throws SQLException {
+        super.applyStatementSettings(statement);
+        START.get()[0] = System.nanoTime();
+    }
+
+    @Override
+    protected void handleWarnings(Statement statement) throws SQLException {
+        record();
+        super.handleWarnings(statement);
+    }
+
+    @Override
+    protected void handleWarnings(Statement statement, SQLException exception) {
+        record();
+        super.handleWarnings(statement, exception);
+    }
+
+    private void record() {
+        var start = START.get();
+        if (start[0] != 0) {
+            sqlMetrics.recordJdbc(System.nanoTime() - start[0]);
+            start[0] = 0;
+        }
+    }
+}
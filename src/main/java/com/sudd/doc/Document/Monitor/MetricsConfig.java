@@ -0,0 +1,17 @@
+package com.sudd.doc.Document.Monitor;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// replaces the auto-configured JdbcTemplate, so statements issued through it are timed like Hibernate's
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    @Bean
+    JdbcTemplate jdbcTemplate(DataSource dataSource, SqlMetrics sqlMetrics) {
+        return new MeteredJdbcTemplate(dataSource, sqlMetrics);
+    }
+}
@@ -0,0 +1,157 @@
+package com.sudd.doc.Document.Monitor;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier, typically
+ * socket or lock waits inside a synchronized block or a native frame (older
+ * JDBC drivers, JavaMail). A pinned thread holds one of the few carrier
+ * threads for the whole wait, so a handful of them stall every other virtual
+ * thread.
+ *
+ * Listens in-process to the JFR jdk.VirtualThreadPinned event, which the JDK
+ * emits for pins longer than threshold. Each distinct call site (the first
+ * application frame, or the top frame when there is none) is logged once at
+ * WARN with its stack and counted afterwards. Runs only while
+ * spring.threads.virtual.enabled is set.
+ */
+@Slf4j
+@Component
+public class PinnedThreadMonitor {
+
+    static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.sudd.doc.";
+    // call sites are code locations, but keep the map bounded regardless
+    private static final int MAX_SITES = 100;
+    private static final String OTHER_SITE = "(other)";
+
+    public record Site(String site, long count, Duration totalTime) {
+    }
+
+    private record Counter(LongAdder count, LongAdder nanos) {
+    }
+
+    private final boolean enabled;
+    private final Duration threshold;
+    private final LongAdder pinned = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private final LongAccumulator maxPinnedNanos = new LongAccumulator(Math::max, 0L);
+    private final Map<String, Counter> sites = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public PinnedThreadMonitor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${securedoc.threads.pinning.enabled:true}") boolean enabled,
+            @Value("${securedoc.threads.pinning.threshold:20ms}") Duration threshold) {
+        this.enabled = virtualThreads && enabled;
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Reporting virtual threads pinned for longer than {}", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    void onPinned(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        pinned.increment();
+        pinnedNanos.add(nanos);
+        maxPinnedNanos.accumulate(nanos);
+        var site = site(event);
+        var key = sites.size() < MAX_SITES || sites.containsKey(site) ? site : OTHER_SITE;
+        var counter = sites.computeIfAbsent(key, ignored -> {
+            log.warn("Virtual thread {} pinned for {} ms at {}", threadName(event), nanos / 1_000_000,
+                    stackTrace(event));
+            return new Counter(new LongAdder(), new LongAdder());
+        });
+        counter.count().increment();
+        counter.nanos().add(nanos);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getPinnedCount() {
+        return pinned.sum();
+    }
+
+    public Duration getPinnedTime() {
+        return Duration.ofNanos(pinnedNanos.sum());
+    }
+
+    public Duration getMaxPinnedTime() {
+        return Duration.ofNanos(maxPinnedNanos.get());
+    }
+
+    // most frequent first
+    public List<Site> getSites() {
+        return sites.entrySet().stream()
+                .map(entry -> new Site(entry.getKey(), entry.getValue().count().sum(),
+                        Duration.ofNanos(entry.getValue().nanos().sum())))
+                .sorted(Comparator.comparingLong(Site::count).reversed())
+                .toList();
+    }
+
+    private static String site(RecordedEvent event) {
+        var stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "(unknown)";
+        }
+        var frames = stackTrace.getFrames();
+        return frames.stream().filter(frame -> frame.isJavaFrame()
+                && frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE))
+                .findFirst().map(PinnedThreadMonitor::format).orElseGet(() -> format(frames.get(0)));
+    }
+
+    private static String stackTrace(RecordedEvent event) {
+        var stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return "(no stack trace)";
+        }
+        var builder = new StringBuilder();
+        for (var frame : stackTrace.getFrames()) {
+            builder.append(System.lineSeparator()).append("\tat ").append(format(frame));
+        }
+        return builder.toString();
+    }
+
+    private static String format(RecordedFrame frame) {
+        var method = frame.getMethod();
+        return method.getType().getName() + "." + method.getName() + ":" + frame.getLineNumber();
+    }
+
+    private static String threadName(RecordedEvent event) {
+        var thread = event.getThread();
+        return thread == null ? "?" : thread.getJavaName() + "#" + thread.getJavaThreadId();
+    }
+}
@@ -0,0 +1,103 @@
+package com.sudd.doc.Document.Monitor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every SQL statement the application executes and counts the
+ * statements of each HTTP request.
+ *
+ * - securedoc.sql.statements: a timer per source, hibernate (recorded by
+ *   SqlSessionListener) or jdbc (recorded by MeteredJdbcTemplate). A JDBC
+ *   batch counts as one statement.
+ * - securedoc.sql.statements.per.request: statements per request, by URI
+ *   pattern, recorded by SqlRequestFilter.
+ *
+ * The meters are created up front or once per URI pattern, so recording is a
+ * nanoTime and a lock-free update of the meter. Hibernate instantiates its
+ * session listeners itself, they reach the meters through current().
+ */
+@Component
+public class SqlMetrics {
+
+    public static final String STATEMENTS = "securedoc.sql.statements";
+    public static final String STATEMENTS_PER_REQUEST = "securedoc.sql.statements.per.request";
+
+    private static volatile SqlMetrics current;
+
+    // statements executed so far by the request on this thread, absent outside of a request
+    private static final ThreadLocal<long[]> REQUEST_STATEMENTS = new ThreadLocal<>();
+
+    private final MeterRegistry registry;
+    private final Timer hibernate;
+    private final Timer jdbc;
+    private final Map<String, DistributionSummary> perRequest = new ConcurrentHashMap<>();
+
+    public SqlMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.hibernate = timer(registry, "hibernate");
+        this.jdbc = timer(registry, "jdbc");
+        current = this;
+    }
+
+    static SqlMetrics current() {
+        return current;
+    }
+
+    public void recordHibernate(long nanos) {
+        record(hibernate, nanos);
+    }
+
+    public void recordJdbc(long nanos) {
+        record(jdbc, nanos);
+    }
+
+    void beginRequest() {
+        REQUEST_STATEMENTS.set(new long[1]);
+    }
+
+    // uri is the matched pattern, never the raw path, so the number of summaries stays bounded
+    void endRequest(String uri) {
+        var statements = REQUEST_STATEMENTS.get();
+        REQUEST_STATEMENTS.remove();
+        if (statements != null) {
+            perRequest.computeIfAbsent(uri, this::summary).record(statements[0]);
+        }
+    }
+
+    private static void record(Timer timer, long nanos) {
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+        var statements = REQUEST_STATEMENTS.get();
+        if (statements != null) {
+            statements[0]++;
+        }
+    }
+
+    private static Timer timer(MeterRegistry registry, String source) {
+        return Timer.builder(STATEMENTS)
+                .description("SQL statements executed, by the layer that issued them")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+    }
+
+    private DistributionSummary summary(String uri) {
+        return DistributionSummary.builder(STATEMENTS_PER_REQUEST)
+                .description("SQL statements executed while serving one HTTP request")
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1000.0)
+                .register(registry);
+    }
+}
@@ -0,0 +1,35 @@
+package com.sudd.doc.Document.Monitor;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+// counts the SQL statements of each request, by the handler's URI pattern as in http.server.requests
+@Component
+@RequiredArgsConstructor
+public class SqlRequestFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final SqlMetrics sqlMetrics;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        sqlMetrics.beginRequest();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            sqlMetrics.endRequest(pattern instanceof String uri ? uri : UNKNOWN);
+        }
+    }
+}
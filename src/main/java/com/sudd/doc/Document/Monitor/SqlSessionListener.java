@@ -0,0 +1,44 @@
+package com.sudd.doc.Document.Monitor;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Reports the statements and batches of one Hibernate session to
+ * SqlMetrics. Hibernate creates an instance per session (see
+ * hibernate.session.events.auto in application.yaml), and a session is used
+ * by one thread at a time, so plain fields hold the start times.
+ */
+public class SqlSessionListener implements SessionEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record(System.nanoTime() - batchStart);
+    }
+
+    private static void record(long nanos) {
+        var metrics = SqlMetrics.current();
+        if (metrics != null) {
+            metrics.recordHibernate(nanos);
+        }
+    }
+}
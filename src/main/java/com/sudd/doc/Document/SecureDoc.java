@@ -6,6 +6,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.sudd.doc.Document.Domain.RequestContext;
 import com.sudd.doc.Document.Enum.Authority;
@@ -15,6 +16,7 @@ import com.sudd.doc.Document.repository.RoleRepository;
 @SpringBootApplication
 @EnableJpaAuditing // track who created or modified an entity and when.
 @EnableAsync // is used to allow asynchronous method execution
+@EnableScheduling // runs the @Scheduled background jobs
 public class SecureDoc {
 
 	public static void main(String[] args) {
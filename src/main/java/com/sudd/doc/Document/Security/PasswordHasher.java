@@ -0,0 +1,194 @@
+package com.sudd.doc.Document.Security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.sudd.doc.Document.Exception.ApiException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hashes and checks passwords on a dedicated, bounded pool of platform threads.
+ *
+ * - passwords are stored as {bcrypt} hashes of securedoc.password.strength.
+ *   Credentials written before hashing existed have no {id} prefix and are
+ *   compared as plain text; needsUpgrade() is true for those and for hashes of
+ *   a lower strength, so they are rehashed on the next successful login.
+ * - the pool has one thread per CPU by default and a queue of queue-capacity.
+ *   A hash that cannot be queued, or has not finished after timeout, fails
+ *   with 503 right away: under a login storm the excess is shed, and an
+ *   accepted login waits for at most queue-capacity / threads hashes ahead of
+ *   it. At most threads + queue-capacity request threads are ever waiting here.
+ * - bulk work (the user import) hashes on a pool of its own, import-threads
+ *   wide, so it never competes with logins for a place in the queue and
+ *   leaves the other CPUs to them. encodeAll() hashes a whole batch there
+ *   concurrently; it is never refused, a full import queue makes it back off
+ *   and resubmit.
+ *
+ * executor.* metrics with name=password-hashing and name=password-import show
+ * the queues and the time each hash takes.
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private static final String BCRYPT = "bcrypt";
+
+    // constant-time comparison for the legacy, unprefixed plain-text credentials
+    private static final PasswordEncoder PLAIN_TEXT = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            throw new UnsupportedOperationException("Passwords are never stored as plain text");
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return MessageDigest.isEqual(rawPassword.toString().getBytes(StandardCharsets.UTF_8),
+                    encodedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+    };
+
+    private final DelegatingPasswordEncoder encoder;
+    private final ExecutorService executor;
+    private final ExecutorService importExecutor;
+    private final Duration timeout;
+    // checked against for an unknown email, so the response time does not tell which emails exist
+    private final String unknownUserHash;
+
+    public PasswordHasher(MeterRegistry meterRegistry,
+            @Value("${securedoc.password.strength:10}") int strength,
+            @Value("${securedoc.password.threads:0}") int threads,
+            @Value("${securedoc.password.queue-capacity:64}") int queueCapacity,
+            @Value("${securedoc.password.timeout:2s}") Duration timeout,
+            @Value("${securedoc.password.import-threads:0}") int importThreads,
+            @Value("${securedoc.password.import-queue-capacity:256}") int importQueueCapacity) {
+        this.encoder = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, new BCryptPasswordEncoder(strength)));
+        this.encoder.setDefaultPasswordEncoderForMatches(PLAIN_TEXT);
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        // hashing is pure CPU work, platform threads even with spring.threads.virtual.enabled
+        var pool = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-"), new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "password-hashing");
+        int importSize = importThreads > 0 ? importThreads : Math.max(1, size / 2);
+        var importPool = new ThreadPoolExecutor(importSize, importSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(importQueueCapacity), new CustomizableThreadFactory("password-import-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.importExecutor = ExecutorServiceMetrics.monitor(meterRegistry, importPool, "password-import");
+        this.timeout = timeout;
+        this.unknownUserHash = encoder.encode(UUID.randomUUID().toString());
+        log.info("Password hashing: bcrypt strength {}, {} threads, queue of {}, {} import threads", strength, size,
+                queueCapacity, importSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        importExecutor.shutdownNow();
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    // the hashes in order, computed concurrently on the import pool; waits rather than failing when it is full
+    public List<String> encodeAll(List<String> rawPasswords) {
+        List<Future<String>> results = new ArrayList<>(rawPasswords.size());
+        try {
+            for (var rawPassword : rawPasswords) {
+                results.add(submitImport(() -> encoder.encode(rawPassword)));
+            }
+            List<String> hashes = new ArrayList<>(results.size());
+            for (var result : results) {
+                hashes.add(result.get());
+            }
+            return hashes;
+        } catch (InterruptedException exception) {
+            results.forEach(result -> result.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new ApiException("Interrupted while hashing passwords");
+        } catch (ExecutionException exception) {
+            results.forEach(result -> result.cancel(true));
+            throw exception.getCause() instanceof RuntimeException cause ? cause : new ApiException();
+        }
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    // as long as a real check, for a login with an unknown email
+    public void matchesNothing(String rawPassword) {
+        matches(rawPassword, unknownUserHash);
+    }
+
+    public boolean needsUpgrade(String encodedPassword) {
+        return encoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> result;
+        try {
+            result = executor.submit(task);
+        } catch (RejectedExecutionException exception) {
+            throw busy();
+        }
+        try {
+            return result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException exception) {
+            result.cancel(true);
+            throw busy();
+        } catch (InterruptedException exception) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ApiException("Interrupted while checking the password");
+        } catch (ExecutionException exception) {
+            throw exception.getCause() instanceof RuntimeException cause ? cause : new ApiException();
+        }
+    }
+
+    // the queue is full (a batch larger than it, or a second import): let it drain, 10ms doubling up to a second
+    private <T> Future<T> submitImport(Callable<T> task) throws InterruptedException {
+        long backoff = 10;
+        while (true) {
+            try {
+                return importExecutor.submit(task);
+            } catch (RejectedExecutionException exception) {
+                if (importExecutor.isShutdown()) {
+                    throw exception;
+                }
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, 1000);
+            }
+        }
+    }
+
+    private static ResponseStatusException busy() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many sign-in attempts, please retry");
+    }
+}
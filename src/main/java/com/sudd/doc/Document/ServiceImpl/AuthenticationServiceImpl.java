@@ -0,0 +1,49 @@
+package com.sudd.doc.Document.ServiceImpl;
+
+import java.util.Optional;
+
+import org.springframework.stereotype.Service;
+
+import com.sudd.doc.Document.Security.PasswordHasher;
+import com.sudd.doc.Document.entity.UserEntity;
+import com.sudd.doc.Document.repository.CredentialRepository;
+import com.sudd.doc.Document.repository.UserRepository;
+import com.sudd.doc.Document.service.AuthenticationService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The user comes from the second-level cache and the hash from one indexed
+ * read; the comparison runs on PasswordHasher's pool.
+ *
+ * Not @Transactional: no database connection is held while the hash is
+ * computed, so a login storm queues on the hashing pool, not on the
+ * connection pool.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuthenticationServiceImpl implements AuthenticationService {
+
+    private final UserRepository userRepository;
+    private final CredentialRepository credentialRepository;
+    private final PasswordHasher passwordHasher;
+
+    @Override
+    public Optional<UserEntity> authenticate(String email, String password) {
+        var user = userRepository.findByEmailIgnoreCase(email);
+        var encoded = user.flatMap(found -> credentialRepository.findPasswordByUserId(found.getId()));
+        if (encoded.isEmpty()) {
+            passwordHasher.matchesNothing(password);
+            return Optional.empty();
+        }
+        if (!passwordHasher.matches(password, encoded.get())) {
+            return Optional.empty();
+        }
+        if (passwordHasher.needsUpgrade(encoded.get())) {
+            // plain text or a lower strength; a concurrent change of the password wins over the rehash
+            var userId = user.get().getId();
+            credentialRepository.updatePassword(userId, encoded.get(), passwordHasher.encode(password), userId);
+        }
+        return user;
+    }
+}
@@ -0,0 +1,297 @@
+package com.sudd.doc.Document.ServiceImpl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.sudd.doc.Document.Domain.CursorPage;
+import com.sudd.doc.Document.Domain.DocumentSearchHit;
+import com.sudd.doc.Document.Domain.DocumentSummary;
+import com.sudd.doc.Document.Exception.ApiException;
+import com.sudd.doc.Document.entity.DocumentEntity;
+import com.sudd.doc.Document.repository.BlobRepository;
+import com.sudd.doc.Document.repository.DocumentRepository;
+import com.sudd.doc.Document.repository.DocumentSearchRepository;
+import com.sudd.doc.Document.service.DocumentService;
+import com.sudd.doc.Document.utils.CursorUtils;
+import com.sudd.doc.Document.utils.DocumentUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Document content is stored once per distinct content, as a blob named by
+ * its SHA-256 under securedoc.storage.location/blobs/. An upload is copied
+ * from the request stream through one fixed buffer into a temporary file
+ * under uploads/, hashing as it goes, so heap use does not depend on the
+ * file size. The document row then takes a reference on the blob (see
+ * BlobRepository#acquire): new content is synced and renamed into place,
+ * content that is already stored is simply dropped. A failed upload leaves
+ * neither a row nor a file behind.
+ *
+ * Not @Transactional: no database connection is held while the body streams.
+ */
+@Service
+@Slf4j
+public class DocumentServiceImpl implements DocumentService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // a tsvector is limited to 1MB, the start of a document is enough to find it
+    private static final int MAX_INDEXED_TEXT = 256 * 1024;
+
+    private final DocumentRepository documentRepository;
+    private final BlobRepository blobRepository;
+    private final DocumentSearchRepository documentSearchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path root;
+    // in-progress uploads, on the same file system as root so completing one is an atomic rename
+    private final Path uploads;
+    private final long maxFileSize;
+
+    public DocumentServiceImpl(DocumentRepository documentRepository, BlobRepository blobRepository,
+            DocumentSearchRepository documentSearchRepository, TransactionTemplate transactionTemplate,
+            @Value("${securedoc.storage.location:${user.home}/securedoc/documents}") Path root,
+            @Value("${securedoc.storage.max-file-size:10GB}") DataSize maxFileSize) throws IOException {
+        this.documentRepository = documentRepository;
+        this.blobRepository = blobRepository;
+        this.documentSearchRepository = documentSearchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.root = Files.createDirectories(root.toAbsolutePath().normalize());
+        this.uploads = Files.createDirectories(this.root.resolve("uploads"));
+        this.maxFileSize = maxFileSize.toBytes();
+    }
+
+    @Override
+    public DocumentEntity upload(InputStream content, String name, String description) {
+        validateName(name);
+        Path partial = null;
+        try {
+            partial = createTemporaryFile();
+            var digest = sha256();
+            copy(content, partial, digest);
+            return store(partial, HexFormat.of().formatHex(digest.digest()), name, description);
+        } catch (IOException exception) {
+            log.error(exception.getMessage());
+            throw new ApiException("Unable to store the document");
+        } finally {
+            // already moved into place when the upload brought new content
+            deleteQuietly(partial);
+        }
+    }
+
+    @Override
+    public Path createTemporaryFile() throws IOException {
+        return Files.createFile(uploads.resolve(UUID.randomUUID() + ".part"));
+    }
+
+    @Override
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    @Override
+    public DocumentEntity save(Path content, String name, String description) {
+        validateName(name);
+        try {
+            return store(content, hash(content), name, description);
+        } catch (IOException exception) {
+            log.error(exception.getMessage());
+            throw new ApiException("Unable to store the document");
+        } finally {
+            deleteQuietly(content);
+        }
+    }
+
+    @Override
+    public DocumentEntity getDocument(String documentId) {
+        return documentRepository.findByDocumentId(documentId).orElseThrow(() -> new ApiException("Document not found"));
+    }
+
+    @Override
+    public Path getContent(DocumentEntity document) {
+        var path = root.resolve(document.getUri());
+        if (!Files.isRegularFile(path)) {
+            throw new ApiException("Document content not found");
+        }
+        return path;
+    }
+
+    @Override
+    public CursorPage<DocumentSearchHit> search(String query, String cursor, int size) {
+        if (StringUtils.isBlank(query)) {
+            throw new ApiException("Search query is required");
+        }
+        int limit = CursorUtils.getPageSize(size);
+        List<DocumentSearchHit> hits;
+        if (cursor == null) {
+            hits = documentSearchRepository.search(query, limit + 1);
+        } else {
+            var after = CursorUtils.decode(cursor, 2);
+            hits = documentSearchRepository.searchAfter(query, Float.intBitsToFloat((int) after[0]), after[1], limit + 1);
+        }
+        return CursorPage.of(hits, limit, hit -> CursorUtils.encode(Float.floatToIntBits(hit.rank()), hit.id()));
+    }
+
+    @Override
+    public CursorPage<DocumentSummary> getDocuments(String cursor, int size) {
+        int limit = CursorUtils.getPageSize(size);
+        List<DocumentSummary> documents;
+        if (cursor == null) {
+            documents = documentRepository.findSummaries(Limit.of(limit + 1));
+        } else {
+            var after = CursorUtils.decode(cursor, 2);
+            documents = documentRepository.findSummariesBefore(CursorUtils.fromEpochMicros(after[0]), after[1],
+                    Limit.of(limit + 1));
+        }
+        return CursorPage.of(documents, limit,
+                document -> CursorUtils.encode(CursorUtils.toEpochMicros(document.createdAt()), document.id()));
+    }
+
+    @Override
+    public void deleteDocument(String documentId) {
+        var document = getDocument(documentId);
+        transactionTemplate.executeWithoutResult(status -> {
+            documentRepository.delete(document);
+            if (document.getBlobHash() != null) {
+                // the file goes once nothing references it, see BlobCollectorJob
+                blobRepository.release(document.getBlobHash());
+            }
+        });
+        if (document.getBlobHash() == null) {
+            deleteQuietly(root.resolve(document.getUri()));
+        }
+    }
+
+    // one transaction for the reference and the row; a rollback also undoes the rename of new content
+    private DocumentEntity store(Path content, String hash, String name, String description) throws IOException {
+        long size = Files.size(content);
+        var blob = DocumentUtils.getBlobPath(root, hash);
+        var extension = DocumentUtils.getExtension(name);
+        var text = DocumentUtils.isText(extension) ? readText(content) : null;
+        var moved = new boolean[1];
+        try {
+            return transactionTemplate.execute(status -> {
+                if (blobRepository.acquire(hash, size)) {
+                    moveIntoPlace(content, blob);
+                    moved[0] = true;
+                }
+                var document = documentRepository.save(DocumentEntity.builder()
+                        .documentId(UUID.randomUUID().toString())
+                        .name(name)
+                        .description(description)
+                        .extension(extension)
+                        .size(size)
+                        .formattedSize(DocumentUtils.getFormattedSize(size))
+                        .icon(DocumentUtils.getIcon(extension))
+                        .uri(root.relativize(blob).toString())
+                        .blobHash(hash)
+                        .build());
+                if (text != null) {
+                    documentRepository.flush();
+                    documentSearchRepository.indexContent(document.getId(), text);
+                }
+                return document;
+            });
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        } catch (RuntimeException exception) {
+            if (moved[0]) {
+                deleteQuietly(blob);
+            }
+            throw exception;
+        }
+    }
+
+    // durable before the blob row that points to it commits
+    private static void moveIntoPlace(Path content, Path blob) {
+        try {
+            Files.createDirectories(blob.getParent());
+            try (var channel = FileChannel.open(content, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(content, blob, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private void copy(InputStream content, Path partial, MessageDigest digest) throws IOException {
+        var buffer = new byte[BUFFER_SIZE];
+        long size = 0;
+        try (var out = Files.newOutputStream(partial, StandardOpenOption.WRITE)) {
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                size += read;
+                if (size > maxFileSize) {
+                    throw new ApiException("Document exceeds the maximum size of " + DocumentUtils.getFormattedSize(maxFileSize));
+                }
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    // NUL cannot be stored in a PostgreSQL text value; undecodable bytes become U+FFFD
+    private static String readText(Path content) throws IOException {
+        var bytes = new byte[MAX_INDEXED_TEXT];
+        int length;
+        try (var in = Files.newInputStream(content)) {
+            length = in.readNBytes(bytes, 0, bytes.length);
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8).replace('\u0000', ' ');
+    }
+
+    private static String hash(Path content) throws IOException {
+        var digest = sha256();
+        var buffer = new byte[BUFFER_SIZE];
+        try (var in = Files.newInputStream(content)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static void validateName(String name) {
+        if (StringUtils.isBlank(name)) {
+            throw new ApiException("Document name is required");
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException exception) {
+            log.warn("Unable to delete {}: {}", path, exception.getMessage());
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package com.sudd.doc.Document.ServiceImpl;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import com.sudd.doc.Document.Exception.ApiException;
+import com.sudd.doc.Document.Mail.EmailTemplates;
+import com.sudd.doc.Document.Mail.EmailTemplates.Kind;
+import com.sudd.doc.Document.Mail.EmailTemplates.Rendered;
+import com.sudd.doc.Document.Mail.MailDispatcher;
 import com.sudd.doc.Document.service.EmailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,60 +30,43 @@ public class EmailserviceImpl implements EmailService{
 
     private final JavaMailSender sender;
 
+    private final MailDispatcher mailDispatcher;
+
+    private final EmailTemplates emailTemplates;
+
     @Value("${spring.mail.host}")
     private String host;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
 
+    // called by OutboxDispatcher, which submits a whole batch and then waits on the futures: a failure
+    // must reach it so the message is retried
     @Override
-    @Async
-    public void sendNewAccountEmail(String name, String email, String token) {
-       try {
-        SimpleMailMessage message= new SimpleMailMessage();
-        message.setSubject(NEW_USER_ACCOUNT_VERIFICATION);
-        message.setFrom(fromEmail);
-        message.setTo(email);
-        message.setText(EmailUtils.getEmailMessage(name , host,token ));
-        sender.send(message);
-       } catch (Exception exception) {
-        log.error(exception.getMessage());
-        throw new ApiException("unable to send an email , try again!");
-       }
+    public CompletableFuture<Void> sendNewAccountEmail(String name, String email, String token) {
+        return send(NEW_USER_ACCOUNT_VERIFICATION, email,
+                emailTemplates.render(Kind.ACCOUNT_VERIFICATION, name, EmailUtils.getverificationUrl(host, token)));
     }
 
     @Override
-    @Async
-    public void sendPasswordResetEmail(String name, String email, String token) {
+    public CompletableFuture<Void> sendPasswordResetEmail(String name, String email, String token) {
+        return send(RESET_PASSWORD_REQUEST, email,
+                emailTemplates.render(Kind.PASSWORD_RESET, name, EmailUtils.getResetPasswordUrl(host, token)));
+    }
+
+    // text and HTML as multipart/alternative, handed to the pooled MailDispatcher connections
+    private CompletableFuture<Void> send(String subject, String email, Rendered body) {
         try {
-            SimpleMailMessage message= new SimpleMailMessage();
-            message.setSubject(RESET_PASSWORD_REQUEST);
-            message.setFrom(fromEmail);
-            message.setTo(email);
-            message.setText(EmailUtils.getResetPasswordMessage(name , host,token ));
-            sender.send(message);
-           } catch (Exception exception) {
+            MimeMessage message = sender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setSubject(subject);
+            helper.setFrom(fromEmail);
+            helper.setTo(email);
+            helper.setText(body.text(), body.html());
+            return mailDispatcher.submit(message);
+        } catch (Exception exception) {
             log.error(exception.getMessage());
             throw new ApiException("unable to send an email , try again!");
-           }
         }
-           
-// @Async
-// public void sendNewAccountEmailHtml(String name, String toEmail, String token) {
-//     try {
-//         MimeMessage message = sender.createMimeMessage();
-//         MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-//         helper.setFrom(fromEmail);
-//         helper.setTo(toEmail);
-//         helper.setSubject("Verify Your SecureDoc Account");
-//         helper.setText(EmailUtils.getVerificationHtml(name, "", token), true);
-
-//         sender.send(message);
-//     } catch (Exception e) {
-//         throw new RuntimeException("Failed to send email", e);
-//     } 
-// }
-
-
-}
\ No newline at end of file
+    }
+}
@@ -0,0 +1,112 @@
+package com.sudd.doc.Document.ServiceImpl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sudd.doc.Document.Enum.OutboxStatus;
+import com.sudd.doc.Document.Event.EventType;
+import com.sudd.doc.Document.Exception.ApiException;
+import com.sudd.doc.Document.entity.OutboxEntity;
+import com.sudd.doc.Document.entity.UserEntity;
+import com.sudd.doc.Document.repository.OutboxRepository;
+import com.sudd.doc.Document.service.OutboxService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class OutboxServiceImpl implements OutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+
+    public OutboxServiceImpl(OutboxRepository outboxRepository, ObjectMapper objectMapper,
+            @Value("${securedoc.outbox.lease:5m}") Duration lease,
+            @Value("${securedoc.outbox.max-attempts:10}") int maxAttempts,
+            @Value("${securedoc.outbox.backoff:5s}") Duration backoff,
+            @Value("${securedoc.outbox.max-backoff:1h}") Duration maxBackoff) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    // joins the caller's transaction, the event is stored only if the user is
+    @Override
+    public void enqueue(UserEntity userEntity, EventType eventType, Map<String, ?> data) {
+        outboxRepository.save(new OutboxEntity(userEntity.getId(), eventType, toPayload(data)));
+    }
+
+    @Override
+    public String toPayload(Map<String, ?> data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException exception) {
+            throw new ApiException("Unable to serialise event data");
+        }
+    }
+
+    @Override
+    public Map<?, ?> fromPayload(String payload) {
+        try {
+            return objectMapper.readValue(payload, Map.class);
+        } catch (JsonProcessingException exception) {
+            throw new ApiException("Unable to read event data");
+        }
+    }
+
+    @Override
+    public List<OutboxEntity> claim(int batchSize) {
+        return outboxRepository.claim(batchSize, lease.toSeconds());
+    }
+
+    // one delete per attempts value, almost always just one: the claim ran in a single statement
+    @Override
+    public void delivered(List<OutboxEntity> messages) {
+        messages.stream()
+                .collect(Collectors.groupingBy(OutboxEntity::getAttempts,
+                        Collectors.mapping(OutboxEntity::getId, Collectors.toList())))
+                .forEach((attempts, ids) -> {
+                    var deleted = outboxRepository.deleteDelivered(ids, attempts);
+                    if (deleted < ids.size()) {
+                        log.warn("{} outbox messages were re-claimed before they were marked delivered",
+                                ids.size() - deleted);
+                    }
+                });
+    }
+
+    // exponential backoff from the attempt count the claim already incremented
+    @Override
+    public void failed(OutboxEntity message, String error) {
+        var attempts = message.getAttempts();
+        var status = attempts >= maxAttempts ? OutboxStatus.FAILED : OutboxStatus.PENDING;
+        var delay = backoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        if (delay.compareTo(maxBackoff) > 0) {
+            delay = maxBackoff;
+        }
+        if (status == OutboxStatus.FAILED) {
+            log.error("Giving up on outbox message {} after {} attempts: {}", message.getId(), attempts, error);
+        }
+        var updated = outboxRepository.reschedule(message.getId(), attempts, status.name(), delay.toSeconds(),
+                StringUtils.abbreviate(error, MAX_ERROR_LENGTH));
+        if (updated == 0) {
+            log.warn("Outbox message {} was re-claimed before its failure was recorded", message.getId());
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.sudd.doc.Document.ServiceImpl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.sudd.doc.Document.Domain.UploadStatus;
+import com.sudd.doc.Document.Exception.ApiException;
+import com.sudd.doc.Document.entity.DocumentEntity;
+import com.sudd.doc.Document.service.DocumentService;
+import com.sudd.doc.Document.service.UploadService;
+import com.sudd.doc.Document.utils.DocumentUtils;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resumable uploads. Creating an upload preallocates a file of the final
+ * size; every chunk is then written straight at its own offset through a
+ * shared FileChannel (positional writes need no coordination), so chunks can
+ * arrive in any order, in parallel and be retried individually. Nothing is
+ * recorded in DOCUMENTS until commit, which hands the complete file to
+ * DocumentService.
+ *
+ * Sessions are kept in memory on the node that created them: a restart or a
+ * different node answers 'Upload not found' and the client starts over.
+ * Sessions idle for longer than securedoc.upload.session-timeout are dropped.
+ *
+ * Each session holds an open file descriptor and a file of its full size, so
+ * at most securedoc.upload.max-sessions may be open at once, reserving at most
+ * securedoc.upload.max-reserved bytes between them; beyond that a new upload
+ * is refused with 503 until others finish.
+ */
+@Service
+@Slf4j
+public class UploadServiceImpl implements UploadService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DocumentService documentService;
+    private final long chunkSize;
+    private final Duration sessionTimeout;
+    private final int maxSessions;
+    private final long maxReservedBytes;
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+    // guarded by this: sessions created or being created, and the bytes their files take
+    private int openSessions;
+    private long reservedBytes;
+
+    public UploadServiceImpl(DocumentService documentService,
+            @Value("${securedoc.upload.chunk-size:8MB}") DataSize chunkSize,
+            @Value("${securedoc.upload.session-timeout:24h}") Duration sessionTimeout,
+            @Value("${securedoc.upload.max-sessions:100}") int maxSessions,
+            @Value("${securedoc.upload.max-reserved:20GB}") DataSize maxReserved) {
+        this.documentService = documentService;
+        this.chunkSize = chunkSize.toBytes();
+        this.sessionTimeout = sessionTimeout;
+        this.maxSessions = maxSessions;
+        this.maxReservedBytes = maxReserved.toBytes();
+    }
+
+    @Override
+    public UploadStatus createUpload(String name, String description, long size) {
+        if (StringUtils.isBlank(name)) {
+            throw new ApiException("Document name is required");
+        }
+        if (size <= 0 || size > documentService.getMaxFileSize()) {
+            throw new ApiException("Upload size must be between 1 byte and "
+                    + DocumentUtils.getFormattedSize(documentService.getMaxFileSize()));
+        }
+        reserve(size);
+        Path file = null;
+        FileChannel channel = null;
+        try {
+            file = documentService.createTemporaryFile();
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // extend to the final size up front (sparse where supported) so every chunk has its place
+            channel.write(ByteBuffer.allocate(1), size - 1);
+            var session = new UploadSession(UUID.randomUUID().toString(), name, description, size,
+                    (int) ((size + chunkSize - 1) / chunkSize), file, channel);
+            sessions.put(session.id, session);
+            return status(session);
+        } catch (IOException exception) {
+            log.error(exception.getMessage());
+            closeQuietly(channel);
+            deleteQuietly(file);
+            release(size);
+            throw new ApiException("Unable to create the upload");
+        }
+    }
+
+    @Override
+    public UploadStatus writeChunk(String uploadId, int index, InputStream content) {
+        var session = getSession(uploadId);
+        if (index < 0 || index >= session.chunkCount) {
+            throw new ApiException("Chunk " + index + " is outside 0.." + (session.chunkCount - 1));
+        }
+        long offset = index * chunkSize;
+        long expected = Math.min(chunkSize, session.size - offset);
+        var lock = session.lock.readLock();
+        lock.lock();
+        try {
+            if (session.closed) {
+                throw new ApiException("Upload not found");
+            }
+            var buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long written = 0;
+            int read;
+            // read one byte more than expected to notice an oversized chunk
+            while ((read = content.read(buffer.array(), 0, (int) Math.min(BUFFER_SIZE, expected - written + 1))) != -1) {
+                if (written + read > expected) {
+                    throw new ApiException("Chunk " + index + " must be " + expected + " bytes");
+                }
+                buffer.position(0).limit(read);
+                while (buffer.hasRemaining()) {
+                    written += session.channel.write(buffer, offset + written);
+                }
+            }
+            if (written != expected) {
+                throw new ApiException("Chunk " + index + " must be " + expected + " bytes");
+            }
+            session.received(index);
+        } catch (IOException exception) {
+            log.error(exception.getMessage());
+            throw new ApiException("Unable to store chunk " + index);
+        } finally {
+            lock.unlock();
+        }
+        return status(session);
+    }
+
+    @Override
+    public UploadStatus getUpload(String uploadId) {
+        return status(getSession(uploadId));
+    }
+
+    @Override
+    public DocumentEntity commitUpload(String uploadId) {
+        var session = getSession(uploadId);
+        // waits for chunks still being written and turns away new ones
+        var lock = session.lock.writeLock();
+        lock.lock();
+        try {
+            if (session.closed) {
+                throw new ApiException("Upload not found");
+            }
+            int missing = session.chunkCount - session.receivedCount();
+            if (missing > 0) {
+                throw new ApiException("Upload is missing " + missing + " chunks");
+            }
+            session.closed = true;
+            sessions.remove(uploadId);
+            release(session.size);
+            session.channel.force(false);
+            session.channel.close();
+            return documentService.save(session.file, session.name, session.description);
+        } catch (IOException exception) {
+            log.error(exception.getMessage());
+            throw new ApiException("Unable to complete the upload");
+        } finally {
+            lock.unlock();
+            // a no-op when the file was moved into storage; after a failed commit the upload is gone either way
+            deleteQuietly(session.closed ? session.file : null);
+        }
+    }
+
+    @Override
+    public void abortUpload(String uploadId) {
+        discard(getSession(uploadId));
+    }
+
+    @Scheduled(fixedDelayString = "${securedoc.upload.cleanup-interval:15m}")
+    public void discardIdleUploads() {
+        long cutoff = System.nanoTime() - sessionTimeout.toNanos();
+        for (var session : sessions.values()) {
+            if (session.lastActivity - cutoff < 0) {
+                log.info("Discarding idle upload {} ({})", session.id, session.name);
+                discard(session);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void discardAll() {
+        sessions.values().forEach(this::discard);
+    }
+
+    private void discard(UploadSession session) {
+        var lock = session.lock.writeLock();
+        lock.lock();
+        try {
+            if (session.closed) {
+                return;
+            }
+            session.closed = true;
+            sessions.remove(session.id);
+            release(session.size);
+            session.channel.close();
+        } catch (IOException exception) {
+            log.warn("Unable to close upload {}: {}", session.id, exception.getMessage());
+        } finally {
+            lock.unlock();
+            deleteQuietly(session.file);
+        }
+    }
+
+    private synchronized void reserve(long size) {
+        if (openSessions >= maxSessions || reservedBytes + size > maxReservedBytes) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many uploads in progress, please retry");
+        }
+        openSessions++;
+        reservedBytes += size;
+    }
+
+    private synchronized void release(long size) {
+        openSessions--;
+        reservedBytes -= size;
+    }
+
+    private UploadSession getSession(String uploadId) {
+        var session = sessions.get(uploadId);
+        if (session == null) {
+            throw new ApiException("Upload not found");
+        }
+        session.lastActivity = System.nanoTime();
+        return session;
+    }
+
+    private UploadStatus status(UploadSession session) {
+        List<Integer> missing = new ArrayList<>();
+        int received;
+        synchronized (session.received) {
+            received = session.received.cardinality();
+            for (int i = session.received.nextClearBit(0); i < session.chunkCount; i = session.received.nextClearBit(i + 1)) {
+                missing.add(i);
+            }
+        }
+        return new UploadStatus(session.id, session.name, session.size, chunkSize, session.chunkCount, received, missing);
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException exception) {
+            log.warn("Unable to close upload file: {}", exception.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException exception) {
+            log.warn("Unable to delete {}: {}", path, exception.getMessage());
+        }
+    }
+
+    private static final class UploadSession {
+        private final String id;
+        private final String name;
+        private final String description;
+        private final long size;
+        private final int chunkCount;
+        private final Path file;
+        private final FileChannel channel;
+        private final BitSet received;
+        // chunk writes share the read lock, commit and abort take the write lock
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile long lastActivity = System.nanoTime();
+        private volatile boolean closed;
+
+        private UploadSession(String id, String name, String description, long size, int chunkCount, Path file,
+                FileChannel channel) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.size = size;
+            this.chunkCount = chunkCount;
+            this.file = file;
+            this.channel = channel;
+            this.received = new BitSet(chunkCount);
+        }
+
+        private void received(int index) {
+            synchronized (received) {
+                received.set(index);
+            }
+        }
+
+        private int receivedCount() {
+            synchronized (received) {
+                return received.cardinality();
+            }
+        }
+    }
+}
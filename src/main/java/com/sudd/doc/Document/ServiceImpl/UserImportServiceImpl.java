@@ -0,0 +1,298 @@
+package com.sudd.doc.Document.ServiceImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sudd.doc.Document.Domain.ImportResult;
+import com.sudd.doc.Document.Domain.ImportResult.RowError;
+import com.sudd.doc.Document.Domain.RequestContext;
+import com.sudd.doc.Document.DtoRequest.UserRequest;
+import com.sudd.doc.Document.Enum.Authority;
+import com.sudd.doc.Document.Enum.VerificationMode;
+import com.sudd.doc.Document.Event.EventType;
+import com.sudd.doc.Document.Exception.ApiException;
+import com.sudd.doc.Document.Security.PasswordHasher;
+import com.sudd.doc.Document.entity.Auditable;
+import com.sudd.doc.Document.entity.ConfirmationEntity;
+import com.sudd.doc.Document.entity.CredentialEntity;
+import com.sudd.doc.Document.entity.OutboxEntity;
+import com.sudd.doc.Document.entity.RolesEntity;
+import com.sudd.doc.Document.entity.UserEntity;
+import com.sudd.doc.Document.repository.UserBatchRepository;
+import com.sudd.doc.Document.service.OutboxService;
+import com.sudd.doc.Document.service.UserImportService;
+import com.sudd.doc.Document.service.UserService;
+import com.sudd.doc.Document.service.VerificationTokenService;
+import com.sudd.doc.Document.utils.CsvUtils;
+import com.sudd.doc.Document.utils.UserUtils;
+import com.sudd.doc.Document.utils.UuidGenerator;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams a CSV or NDJSON body line by line and writes the users in batches,
+ * one transaction per batch. Only the current batch is held in memory, so a
+ * file of millions of rows costs the same heap as a file of one batch.
+ *
+ * A batch that the database rejects (e.g. an email registered concurrently)
+ * is retried one row per transaction so that only the offending rows fail.
+ * Verification emails are written to the outbox in the same transaction as
+ * their users and sent later by OutboxDispatcher.
+ *
+ * The passwords of a batch are hashed together on PasswordHasher's import
+ * pool (see PasswordHasher#encodeAll), one hash per import thread at a time,
+ * before the batch's transaction opens. That pool is separate from the one
+ * logins use, so a login storm does not fail import rows and an import does
+ * not take queue places from logins.
+ */
+@Service
+@Slf4j
+public class UserImportServiceImpl implements UserImportService {
+
+    private final UserBatchRepository userBatchRepository;
+    private final UserService userService;
+    private final OutboxService outboxService;
+    private final VerificationTokenService verificationTokenService;
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectReader ndjsonReader;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public UserImportServiceImpl(UserBatchRepository userBatchRepository, UserService userService,
+            OutboxService outboxService, VerificationTokenService verificationTokenService,
+            PasswordHasher passwordHasher, TransactionTemplate transactionTemplate, Validator validator,
+            ObjectMapper objectMapper,
+            @Value("${securedoc.import.batch-size:1000}") int batchSize,
+            @Value("${securedoc.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.userBatchRepository = userBatchRepository;
+        this.userService = userService;
+        this.outboxService = outboxService;
+        this.verificationTokenService = verificationTokenService;
+        this.passwordHasher = passwordHasher;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.ndjsonReader = objectMapper.readerFor(UserRequest.class);
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public ImportResult importUsers(InputStream input, MediaType format) {
+        boolean csv = TEXT_CSV.isCompatibleWith(format);
+        if (!csv && !APPLICATION_NDJSON.isCompatibleWith(format)) {
+            throw new ApiException("Unsupported import format " + format);
+        }
+        var run = new ImportRun(userService.getRoleName(Authority.USER.name()));
+        try (var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> header = null;
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && header == null) {
+                    header = CsvUtils.parseLine(line).stream().map(column -> column.toLowerCase(Locale.ROOT)).toList();
+                    continue;
+                }
+                try {
+                    run.add(lineNumber, csv ? fromCsv(header, line) : ndjsonReader.readValue(line));
+                } catch (IOException | IllegalArgumentException exception) {
+                    run.fail(lineNumber, null, "Malformed row: " + exception.getMessage());
+                }
+            }
+        } catch (IOException exception) {
+            log.error(exception.getMessage());
+            throw new ApiException("Unable to read the import stream");
+        }
+        run.flush();
+        return run.result();
+    }
+
+    private UserRequest fromCsv(List<String> header, String line) {
+        var fields = CsvUtils.parseLine(line);
+        if (fields.size() != header.size()) {
+            throw new IllegalArgumentException("expected " + header.size() + " columns but found " + fields.size());
+        }
+        var user = new UserRequest();
+        for (int i = 0; i < header.size(); i++) {
+            var value = fields.get(i);
+            switch (header.get(i)) {
+                case "firstname" -> user.setFirstName(value);
+                case "lastname" -> user.setLastName(value);
+                case "email" -> user.setEmail(value);
+                case "password" -> user.setPassword(value);
+                case "bio" -> user.setBio(value);
+                case "phonenumber" -> user.setPhoneNumber(value);
+                default -> {}
+            }
+        }
+        return user;
+    }
+
+    private record Row(long line, UserRequest request) {
+    }
+
+    // per-call state: the pending batch and the running totals
+    private class ImportRun {
+        private final RolesEntity role;
+        private final List<Row> batch = new ArrayList<>(batchSize);
+        private final List<RowError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        ImportRun(RolesEntity role) {
+            this.role = role;
+        }
+
+        void add(long line, UserRequest request) {
+            Set<ConstraintViolation<UserRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                fail(line, request.getEmail(), violations.iterator().next().getMessage());
+                return;
+            }
+            batch.add(new Row(line, request));
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void fail(long line, String email, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(line, email, message));
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            var existing = userBatchRepository.findExistingEmails(
+                    batch.stream().map(row -> normalize(row.request().getEmail())).toList());
+            // earlier batches are already committed, so only duplicates inside this batch need tracking
+            Set<String> seenEmails = new HashSet<>();
+            List<Row> accepted = new ArrayList<>(batch.size());
+            for (var row : batch) {
+                var email = normalize(row.request().getEmail());
+                if (existing.contains(email) || !seenEmails.add(email)) {
+                    fail(row.line(), row.request().getEmail(), "Email already exists");
+                } else {
+                    accepted.add(row);
+                }
+            }
+            batch.clear();
+            hashPasswords(accepted);
+            try {
+                write(accepted);
+            } catch (DataAccessException batchException) {
+                log.warn("Import batch rejected, retrying row by row: {}", batchException.getMessage());
+                for (var row : accepted) {
+                    try {
+                        write(List.of(row));
+                    } catch (DataAccessException rowException) {
+                        fail(row.line(), row.request().getEmail(), "Rejected by database");
+                    }
+                }
+            }
+        }
+
+        private void hashPasswords(List<Row> rows) {
+            var hashes = passwordHasher.encodeAll(rows.stream().map(row -> row.request().getPassword()).toList());
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i).request().setPassword(hashes.get(i));
+            }
+        }
+
+        private void write(List<Row> rows) {
+            if (rows.isEmpty()) {
+                return;
+            }
+            imported += transactionTemplate.execute(status -> insert(rows));
+        }
+
+        private int insert(List<Row> rows) {
+            boolean signed = verificationTokenService.getMode() == VerificationMode.SIGNED;
+            // user, credential, outbox message and, unless tokens are signed, a confirmation per row
+            long[] ids = userBatchRepository.allocateIds(rows.size() * (signed ? 3 : 4));
+            int nextId = 0;
+            var now = LocalDateTime.now();
+            List<UserEntity> users = new ArrayList<>(rows.size());
+            List<CredentialEntity> credentials = new ArrayList<>(rows.size());
+            List<ConfirmationEntity> confirmations = new ArrayList<>(signed ? 0 : rows.size());
+            List<OutboxEntity> messages = new ArrayList<>(rows.size());
+            for (var row : rows) {
+                var request = row.request();
+                var user = UserUtils.createUserEntity(request.getFirstName(), request.getLastName(), request.getEmail(), role);
+                user.setBio(StringUtils.defaultString(request.getBio()));
+                user.setPhoneNumber(StringUtils.defaultString(request.getPhoneNumber()));
+                audit(user, ids[nextId++], now);
+                var credential = new CredentialEntity(user, request.getPassword());
+                audit(credential, ids[nextId++], now);
+                String key;
+                if (signed) {
+                    key = verificationTokenService.sign(user.getId());
+                } else {
+                    var confirmation = new ConfirmationEntity(user);
+                    audit(confirmation, ids[nextId++], now);
+                    confirmations.add(confirmation);
+                    key = confirmation.getKey().toString();
+                }
+                var message = new OutboxEntity(user.getId(), EventType.REGISTRATION, outboxService.toPayload(Map.of("key", key)));
+                audit(message, ids[nextId++], now);
+                users.add(user);
+                credentials.add(credential);
+                messages.add(message);
+            }
+            userBatchRepository.insertUsers(users);
+            userBatchRepository.insertCredentials(credentials);
+            if (!confirmations.isEmpty()) {
+                userBatchRepository.insertConfirmations(confirmations);
+            }
+            userBatchRepository.insertOutbox(messages);
+            return rows.size();
+        }
+
+        ImportResult result() {
+            return new ImportResult(imported, failed, List.copyOf(errors));
+        }
+    }
+
+    // same audit values Auditable#beforePersist sets for entities saved through JPA
+    private static void audit(Auditable entity, long id, LocalDateTime now) {
+        entity.setId(id);
+        entity.setReferenceId(UuidGenerator.generate().toString());
+        entity.setCreatedBy(RequestContext.getUserIdOrSystem());
+        entity.setUpdatedBy(RequestContext.getUserIdOrSystem());
+        entity.setCreatedAt(now);
+        entity.setUpdatedAt(now);
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
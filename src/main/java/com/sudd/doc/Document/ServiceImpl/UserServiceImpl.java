@@ -1,23 +1,36 @@
 package com.sudd.doc.Document.ServiceImpl;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
-import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.sudd.doc.Document.Cache.RoleCache;
+import com.sudd.doc.Document.Cache.UserCache;
+import com.sudd.doc.Document.Domain.CursorPage;
+import com.sudd.doc.Document.Domain.RequestContext;
+import com.sudd.doc.Document.Domain.UserSummary;
 import com.sudd.doc.Document.Enum.Authority;
+import com.sudd.doc.Document.Enum.VerificationMode;
 import com.sudd.doc.Document.Event.EventType;
 import com.sudd.doc.Document.Exception.ApiException;
+import com.sudd.doc.Document.Security.PasswordHasher;
 import com.sudd.doc.Document.entity.ConfirmationEntity;
 import com.sudd.doc.Document.entity.CredentialEntity;
 import com.sudd.doc.Document.entity.RolesEntity;
 import com.sudd.doc.Document.entity.UserEntity;
 import com.sudd.doc.Document.repository.ConfirmationRepository;
 import com.sudd.doc.Document.repository.CredentialRepository;
-import com.sudd.doc.Document.repository.RoleRepository;
 import com.sudd.doc.Document.repository.UserRepository;
+import com.sudd.doc.Document.service.OutboxService;
 import com.sudd.doc.Document.service.UserService;
-import com.sudd.doc.Document.utils.UserEvent;
+import com.sudd.doc.Document.service.VerificationTokenService;
+import com.sudd.doc.Document.utils.CursorUtils;
 import com.sudd.doc.Document.utils.UserUtils;
 
 import jakarta.transaction.Transactional;
@@ -33,30 +46,39 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final ConfirmationRepository confirmationRepository;
     private final CredentialRepository credentialRepository;
-    private final RoleRepository roleRepository;
-    // private BycryptPasswordEncoder encoder;
-    // used in scenarios where one component needs to notify others about something
-    // happening, without having a direct dependency on them.
-    private final ApplicationEventPublisher publisher;
-
+    private final RoleCache roleCache;
+    // the enabling UPDATEs are native, the cached user is evicted by hand
+    private final UserCache userCache;
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
+    // events are stored with the user and published later by OutboxDispatcher,
+    // so registration never waits on (or loses) the email
+    private final OutboxService outboxService;
+    private final VerificationTokenService verificationTokenService;
+
+    // the link lifetime promised in the verification email
+    @Value("${securedoc.confirmation.ttl:24h}")
+    private Duration confirmationTtl;
+
+    // the password is hashed before the transaction starts, no connection waits on the hashing pool
     @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public void CreateUser(String firstName, String lastName, String email, String password) {
-
-        // save the user // userRepository--> managing userEntity
-        var userEntity = userRepository.save(createNewUser(firstName, lastName, email));
-        var credentialEntity = new CredentialEntity(userEntity, password);
-        credentialRepository.save(credentialEntity);
-        var confirmationEntity = new ConfirmationEntity(userEntity);
-        confirmationRepository.save(confirmationEntity);
-        publisher.publishEvent(
-                new UserEvent(userEntity, EventType.REGISTRATION, Map.of("key", confirmationEntity.getKey())));
-
+        var hash = passwordHasher.encode(password);
+        transactionTemplate.executeWithoutResult(status -> {
+            // save the user // userRepository--> managing userEntity
+            var userEntity = userRepository.save(createNewUser(firstName, lastName, email));
+            var credentialEntity = new CredentialEntity(userEntity, hash);
+            credentialRepository.save(credentialEntity);
+            outboxService.enqueue(userEntity, EventType.REGISTRATION, Map.of("key", createVerificationKey(userEntity)));
+        });
     }
 
     @Override
     public RolesEntity getRoleName(String name) {
 
-        var role = roleRepository.findByNameIgnoreCase(name);
+        // served from memory, the ROLES table is loaded once at startup
+        var role = roleCache.getByName(name);
 
         return role.orElseThrow(() -> new ApiException("Role not found"));
     }
@@ -68,27 +90,60 @@ public class UserServiceImpl implements UserService {
         return UserUtils.createUserEntity(firstName, lastName, email, role);
     }
 
+    // a signed token needs no row, a DATABASE key is stored in CONFIRMATIONS
+    private String createVerificationKey(UserEntity userEntity) {
+        if (verificationTokenService.getMode() == VerificationMode.SIGNED) {
+            return verificationTokenService.sign(userEntity.getId());
+        }
+        var confirmationEntity = new ConfirmationEntity(userEntity);
+        confirmationRepository.save(confirmationEntity);
+        return confirmationEntity.getKey().toString();
+    }
 
 // VERIFY USER ACCOUNT 
     @Override
     public void VerifyAccountToken(String key) {
-        // find email by key from confirmations 
-       var confirmationEntity = getUserConfirmation(key);
-        // get the user entity and enable the account and save userEntity and delete the confirmation 
-       UserEntity userEntity = getUserEntityByEmail(confirmationEntity.getUserEntity().getEmail());
-       userEntity.setEnabled(true);
-       userRepository.save(userEntity);
-       confirmationRepository.delete(confirmationEntity);
-       
+        var userId = RequestContext.getUserIdOrSystem(); // same as Auditable
+        var confirmationKey = parseConfirmationKey(key);
+        if (confirmationKey == null) {
+            // signature and expiry are checked in memory, only a genuine token reaches the database
+            var id = verificationTokenService.verify(key);
+            userRepository.enableById(id, userId).orElseThrow(() -> new ApiException("User Confirmation Key Not Found"));
+            userCache.evict(id);
+            return;
+        }
+        // delete the confirmation and enable its user in a single statement
+        var confirmation = userRepository.enableByConfirmationKey(confirmationKey, confirmationTtl.toSeconds(), userId)
+                .orElseThrow(() -> new ApiException("User Confirmation Key Not Found"));
+        if (!confirmation.getValid()) {
+            // rolls the delete back too, the stale row is left to ConfirmationPurgeJob
+            throw new ApiException("User Confirmation Key Expired");
+        }
+        userCache.evict(confirmation.getUserId());
     }
 
-    private UserEntity getUserEntityByEmail(String email) {
-     
-        var userByEmail=userRepository.findByEmailIgnoreCase(email);
-       return userByEmail.orElseThrow( () -> new ApiException("User Not found"));
+    @Override
+    public CursorPage<UserSummary> getUsers(String cursor, int size) {
+        int limit = CursorUtils.getPageSize(size);
+        List<UserSummary> users;
+        if (cursor == null) {
+            users = userRepository.findSummaries(Limit.of(limit + 1));
+        } else {
+            var after = CursorUtils.decode(cursor, 2);
+            users = userRepository.findSummariesBefore(CursorUtils.fromEpochMicros(after[0]), after[1], Limit.of(limit + 1));
+        }
+        return CursorPage.of(users, limit, user -> CursorUtils.encode(CursorUtils.toEpochMicros(user.createdAt()), user.id()));
     }
 
-    private  ConfirmationEntity getUserConfirmation(String key) {
-         return confirmationRepository.findByKey(key).orElseThrow( ()-> new ApiException("User Confirmation Key Not Found"));
+    // null for a signed token; keys issued before switching to SIGNED mode keep working until they expire
+    private UUID parseConfirmationKey(String key) {
+        if (verificationTokenService.getMode() == VerificationMode.SIGNED && key.length() != 36) {
+            return null;
+        }
+        try {
+            return UUID.fromString(key);
+        } catch (IllegalArgumentException exception) {
+            throw new ApiException("User Confirmation Key Not Found");
+        }
     }
 }
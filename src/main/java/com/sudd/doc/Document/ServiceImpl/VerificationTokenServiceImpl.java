@@ -0,0 +1,113 @@
+package com.sudd.doc.Document.ServiceImpl;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.sudd.doc.Document.Enum.VerificationMode;
+import com.sudd.doc.Document.Exception.ApiException;
+import com.sudd.doc.Document.service.VerificationTokenService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stateless verification tokens: base64url(user id | expiry epoch seconds | HMAC-SHA256 truncated to 128 bits),
+ * 43 characters. Signature and expiry are checked in memory, so only a genuine, unexpired token costs a query.
+ */
+@Service
+@Slf4j
+public class VerificationTokenServiceImpl implements VerificationTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int PAYLOAD_LENGTH = 2 * Long.BYTES;
+    private static final int SIGNATURE_LENGTH = 16;
+    private static final int TOKEN_LENGTH = PAYLOAD_LENGTH + SIGNATURE_LENGTH;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final VerificationMode mode;
+    private final Duration ttl;
+    private final ThreadLocal<Mac> mac;
+
+    public VerificationTokenServiceImpl(
+            @Value("${securedoc.verification.mode:database}") VerificationMode mode,
+            @Value("${securedoc.verification.secret:}") String secret,
+            @Value("${securedoc.confirmation.ttl:24h}") Duration ttl) {
+        this.mode = mode;
+        this.ttl = ttl;
+        var key = new SecretKeySpec(secretBytes(mode, secret), ALGORITHM);
+        // Mac is not thread-safe, one initialised instance per thread
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                var instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+    }
+
+    private static byte[] secretBytes(VerificationMode mode, String secret) {
+        if (!secret.isBlank()) {
+            return Base64.getDecoder().decode(secret);
+        }
+        if (mode == VerificationMode.SIGNED) {
+            log.warn("securedoc.verification.secret is not set, using a random key: tokens will not survive a restart "
+                    + "or work across nodes");
+        }
+        var random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        return random;
+    }
+
+    @Override
+    public VerificationMode getMode() {
+        return mode;
+    }
+
+    @Override
+    public String sign(long userId) {
+        var token = ByteBuffer.allocate(TOKEN_LENGTH)
+                .putLong(userId)
+                .putLong(System.currentTimeMillis() / 1000 + ttl.toSeconds());
+        token.put(signature(token.array()));
+        return ENCODER.encodeToString(token.array());
+    }
+
+    @Override
+    public long verify(String token) {
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(token);
+        } catch (IllegalArgumentException exception) {
+            throw new ApiException("User Confirmation Key Not Found");
+        }
+        if (bytes.length != TOKEN_LENGTH
+                || !MessageDigest.isEqual(signature(bytes), Arrays.copyOfRange(bytes, PAYLOAD_LENGTH, TOKEN_LENGTH))) {
+            throw new ApiException("User Confirmation Key Not Found");
+        }
+        var payload = ByteBuffer.wrap(bytes);
+        long userId = payload.getLong();
+        if (payload.getLong() < System.currentTimeMillis() / 1000) {
+            throw new ApiException("User Confirmation Key Expired");
+        }
+        return userId;
+    }
+
+    private byte[] signature(byte[] token) {
+        var instance = mac.get();
+        instance.update(token, 0, PAYLOAD_LENGTH);
+        return Arrays.copyOf(instance.doFinal(), SIGNATURE_LENGTH);
+    }
+}
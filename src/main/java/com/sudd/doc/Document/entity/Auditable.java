@@ -5,11 +5,11 @@ import java.time.LocalDateTime;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
-import org.springframework.util.AlternativeJdkIdGenerator;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.sudd.doc.Document.Domain.RequestContext;
 import com.sudd.doc.Document.Exception.ApiException;
+import com.sudd.doc.Document.utils.UuidGenerator;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.ConstraintMode;
@@ -33,8 +33,12 @@ import lombok.Setter;
  * Abstract base class for all auditable entities in the system.
  * 
  * This class provides common auditing fields and logic:
- * - `id`: Auto-generated primary key using a sequence generator.
- * - `referenceId`: Unique string identifier for external reference.
+ * - `id`: Auto-generated primary key using a sequence generator. The allocation size
+ *   matches the sequence increment (50) so Hibernate's pooled-lo optimizer hands out
+ *   a block of ids per `nextval` instead of one round-trip per insert.
+ * - `referenceId`: Unique string identifier for external reference, a time-ordered
+ *   UUID from UuidGenerator assigned on persist. Entities Hibernate loads from rows
+ *   are built without generating one.
  * - `createdBy` / `updatedBy`: Track the user responsible for creating or modifying the entity.
  * - `createdAt` / `updatedAt`: Timestamps for when the entity was created or last updated.
  *
@@ -42,8 +46,8 @@ import lombok.Setter;
  * - `@PrePersist` sets all fields before saving a new entity.
  * - `@PreUpdate` updates `updatedBy` and `updatedAt` before updating an existing entity.
  * 
- * Requires the current user's ID to be available in the thread-local RequestContext.
- * If it's not present, an ApiException will be thrown to enforce proper tracking.
+ * The user comes from the thread-local RequestContext; work done outside of a
+ * signed-in request is recorded as RequestContext.SYSTEM_USER_ID.
  * 
  * Extend this class in any JPA entity to automatically inherit auditing behavior.
  */
@@ -55,12 +59,12 @@ import lombok.Setter;
 @JsonIgnoreProperties(value = {"createdAt" , "updatedAt"} , allowGetters = true)
 public abstract class Auditable {
     @Id
-    @SequenceGenerator(name = "primary_key_seq",sequenceName = "primary_key_seq",allocationSize = 1)
+    @SequenceGenerator(name = "primary_key_seq",sequenceName = "primary_key_seq",allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator ="primary_key_seq" )
     @Column(name = "ID", updatable = false)
     private Long id;
 
-    private String referenceId = new AlternativeJdkIdGenerator().generateId().toString();
+    private String referenceId;
     @NotNull
     private long  createdBy;
 
@@ -88,8 +92,10 @@ public abstract class Auditable {
     // who created it ? loggedin user 
     @PrePersist
     public void beforePersist(){
-        var userId = 0L;  //RequestContext.getUserId(); // Long
-        // if(userId == null) {throw new ApiException("cannot persist entity without user id in RequestContext for this Thread ");};
+        var userId = RequestContext.getUserIdOrSystem();
+        if (referenceId == null) {
+            setReferenceId(UuidGenerator.generate().toString());
+        }
         setCreatedAt(LocalDateTime.now());
         setCreatedBy(userId);
         setUpdatedBy(userId);
@@ -100,8 +106,7 @@ public abstract class Auditable {
     // who updated it ?  loggedin user
     @PreUpdate
     public void beforeUpdate(){
-        var userId = 0L; //RequestContext.getUserId(); // Long
-        // if(userId == null) {throw new ApiException ("cannot Update entity without user id in RequestContext for this Thread ");};
+        var userId = RequestContext.getUserIdOrSystem();
         setUpdatedBy(userId);
         setUpdatedAt(LocalDateTime.now());
         
@@ -10,6 +10,7 @@ import com.fasterxml.jackson.annotation.JsonIdentityReference;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import com.sudd.doc.Document.utils.UuidGenerator;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -20,6 +21,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @AllArgsConstructor
@@ -29,10 +31,13 @@ import lombok.NoArgsConstructor;
 @Table(name = "confirmations")
 @JsonInclude(JsonInclude.Include.NON_DEFAULT)
 public class ConfirmationEntity extends Auditable{
-    // coloumn 1 // token 
-    private String key;
+    // coloumn 1 // token - a native uuid column, 16 bytes instead of 36 characters of text.
+    // time-ordered with 62 SecureRandom bits, see UuidGenerator#generateSecure
+    private UUID key;
     // colloumn 2  - if user is deleted this record from the credentail also gets deleted
-    @OneToOne(targetEntity = UserEntity.class , fetch = FetchType.EAGER)
+    @OneToOne(targetEntity = UserEntity.class , fetch = FetchType.LAZY) // a proxy, the user is loaded only when used
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name="user_id", nullable=false)
     @OnDelete(action=OnDeleteAction.CASCADE)
     @JsonIdentityInfo(generator=ObjectIdGenerators.PropertyGenerator.class,property = "id")
@@ -42,7 +47,7 @@ public class ConfirmationEntity extends Auditable{
     
     public ConfirmationEntity(UserEntity userEntity) {
         this.userEntity= userEntity;
-        this.key= UUID.randomUUID().toString();
+        this.key= UuidGenerator.generateSecure();
         
     }    
     }
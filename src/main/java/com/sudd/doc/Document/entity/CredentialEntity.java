@@ -19,6 +19,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @AllArgsConstructor
@@ -31,7 +32,9 @@ public class CredentialEntity extends Auditable{
 // coloumn 1 
 private String password;
 // colloumn 2  - if user is deleted this record from the credentail also gets deleted
-@OneToOne(targetEntity = UserEntity.class , fetch = FetchType.EAGER)
+@OneToOne(targetEntity = UserEntity.class , fetch = FetchType.LAZY) // a proxy, the user is loaded only when used
+@ToString.Exclude
+@EqualsAndHashCode.Exclude
 @JoinColumn(name="user_id", nullable=false)
 @OnDelete(action=OnDeleteAction.CASCADE)
 @JsonIdentityInfo(generator=ObjectIdGenerators.PropertyGenerator.class,property = "id")
@@ -0,0 +1,49 @@
+package com.sudd.doc.Document.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = false) // when used @data JVM will be in ambugity to create equals() and hascode() for super class
+@Entity
+@Builder
+@Table(name = "documents")
+@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+public class DocumentEntity extends Auditable {
+
+    // public identifier used in the URLs, the numeric id stays internal
+    @Column(name = "document_id", nullable = false, updatable = false, unique = true)
+    private String documentId;
+
+    private String name;
+
+    private String description;
+
+    private String extension;
+
+    private long size;
+
+    private String formattedSize;
+
+    private String icon;
+
+    // location of the content relative to securedoc.storage.location
+    @JsonIgnore
+    private String uri;
+
+    // SHA-256 of the content, the key of the shared row in BLOBS; null for documents stored before deduplication
+    @JsonIgnore
+    @Column(name = "blob_hash", updatable = false)
+    private String blobHash;
+}
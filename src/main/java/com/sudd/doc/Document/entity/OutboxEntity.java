@@ -0,0 +1,59 @@
+package com.sudd.doc.Document.entity;
+
+import java.time.LocalDateTime;
+
+import com.sudd.doc.Document.Enum.OutboxStatus;
+import com.sudd.doc.Document.Event.EventType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * A user event waiting to be delivered, written in the same transaction as
+ * the change that raised it. OutboxDispatcher claims rows whose available_at
+ * has passed, publishes them as UserEvents and deletes them once delivered.
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@Entity
+@Table(name = "outbox")
+public class OutboxEntity extends Auditable {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, updatable = false)
+    private EventType eventType;
+
+    // plain id, the dispatcher loads the users of a whole batch in one query
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Long userId;
+
+    @Column(columnDefinition = "text", updatable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    private OutboxStatus status;
+
+    private int attempts;
+
+    // next time the row may be claimed: lease end while claimed, backoff after a failure. Always set from the
+    // database clock, the one the claim compares it to; new rows take the column default
+    @Column(name = "available_at", nullable = false, insertable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    public OutboxEntity(Long userId, EventType eventType, String payload) {
+        this.userId = userId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.status = OutboxStatus.PENDING;
+    }
+}
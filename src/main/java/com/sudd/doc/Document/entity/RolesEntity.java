@@ -1,9 +1,15 @@
 package com.sudd.doc.Document.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.sudd.doc.Document.Cache.RoleCacheInvalidator;
+import com.sudd.doc.Document.Cache.UserCache;
 import com.sudd.doc.Document.Enum.Authority;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Table;
@@ -17,7 +23,9 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = false) 
 @Entity
+@EntityListeners(RoleCacheInvalidator.class) // keeps RoleCache in step with writes through RoleRepository
 @Table(name="ROLES")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = UserCache.ROLE_REGION) // lazy UserEntity.role proxies are resolved from here
 public class RolesEntity extends Auditable{
     private String name;
     @Column(name = "authority") 
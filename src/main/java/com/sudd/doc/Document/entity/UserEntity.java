@@ -1,9 +1,16 @@
 package com.sudd.doc.Document.entity;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sudd.doc.Document.Cache.UserCache;
 import com.sudd.doc.Document.Enum.Role;
 
 import jakarta.persistence.Column;
@@ -14,12 +21,15 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @AllArgsConstructor
@@ -28,11 +38,17 @@ import lombok.NoArgsConstructor;
 @Entity
 @Builder
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = UserCache.USER_REGION) // second-level cache, see UserCache
+@NaturalIdCache(region = UserCache.USER_ID_REGION)
+// fetch plan for the lookups that need the user's authorities, see UserRepository
+@NamedEntityGraph(name = "UserEntity.role", attributeNodes = @NamedAttributeNode("role"))
 @JsonInclude(JsonInclude.Include.NON_DEFAULT)
 public class UserEntity extends Auditable{
     
+@NaturalId // public id, resolved through the natural-id cache by UserRepository#findUserByUserId
+// time-ordered (UUIDv7, see UuidGenerator) in a native uuid column, so new users append to its index
 @Column(name = "user_id" , nullable = false , updatable = false,unique = true)    
-private String userId;                   
+private UUID userId;                   
 
 private String firstName;     
 
@@ -74,8 +90,11 @@ private String qrCodeSecretKey;
 private String qrCodeImageUrl;  
 
 // id(primary key) is coming from the AUDITTABLE CLASS which is inherited by other entity class 
-// When loading a UserEntity, always also load its role immediately
-@ManyToOne(fetch = FetchType.EAGER)
+// loaded only when asked for: by the UserEntity.role entity graph, or on first access inside a transaction.
+// kept out of toString/equals, which would otherwise load it (or fail once the user is detached)
+@ManyToOne(fetch = FetchType.LAZY)
+@ToString.Exclude
+@EqualsAndHashCode.Exclude
 @JoinTable(name ="user_roles" , 
 joinColumns = @JoinColumn(name="user_id", referencedColumnName = "id"),
 // forigen key (fk) for role user_role table which is inherited by auditable 
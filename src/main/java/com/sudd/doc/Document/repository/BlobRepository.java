@@ -0,0 +1,45 @@
+package com.sudd.doc.Document.repository;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reference counts of the content-addressed blobs. Each method is a single
+ * statement; callers run them inside the transaction that creates or removes
+ * the document row, so the count always matches the rows.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BlobRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // takes a reference, true when this content was not stored yet and the caller has to put the file in place
+    public boolean acquire(String hash, long size) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("""
+                INSERT INTO blobs (hash, size, ref_count) VALUES (?, ?, 1)
+                ON CONFLICT (hash) DO UPDATE SET ref_count = blobs.ref_count + 1, updated_at = now()
+                RETURNING xmax = 0
+                """, Boolean.class, hash, size));
+    }
+
+    public void release(String hash) {
+        jdbcTemplate.update("UPDATE blobs SET ref_count = ref_count - 1, updated_at = now() WHERE hash = ?", hash);
+    }
+
+    // locks a batch of unreferenced blobs; an upload of the same content blocks on the lock until the caller commits
+    public List<String> lockUnreferenced(int batchSize) {
+        return jdbcTemplate.queryForList("""
+                SELECT hash FROM blobs WHERE ref_count = 0
+                ORDER BY updated_at LIMIT ? FOR UPDATE SKIP LOCKED
+                """, String.class, batchSize);
+    }
+
+    public void delete(List<String> hashes) {
+        jdbcTemplate.update("DELETE FROM blobs WHERE hash = ANY (?)", (Object) hashes.toArray(String[]::new));
+    }
+}
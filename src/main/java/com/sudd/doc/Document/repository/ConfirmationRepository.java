@@ -1,17 +1,35 @@
 package com.sudd.doc.Document.repository;
 
 import java.util.Optional;
+import java.util.UUID;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.sudd.doc.Document.entity.ConfirmationEntity;
 import com.sudd.doc.Document.entity.UserEntity;
 
 @Repository
 public interface ConfirmationRepository extends JpaRepository<ConfirmationEntity,Long> {
-    // token 
-    Optional<ConfirmationEntity> findByKey(String key);
+    // token - the key is looked up to reach its user, fetched in the same statement
+    @EntityGraph(attributePaths = "userEntity")
+    Optional<ConfirmationEntity> findByKey(UUID key);
     Optional<ConfirmationEntity> findByUserEntity(UserEntity userEntity);
+
+    // one short transaction per chunk, walking index_confirmations_created_at; rows locked by a
+    // concurrent verification are skipped and picked up by the next run
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            DELETE FROM confirmations WHERE id IN (
+                SELECT id FROM confirmations WHERE created_at < now() - make_interval(secs => :ttlSeconds)
+                ORDER BY created_at LIMIT :chunkSize FOR UPDATE SKIP LOCKED)
+            """)
+    int deleteExpired(@Param("ttlSeconds") long ttlSeconds, @Param("chunkSize") int chunkSize);
     
 }
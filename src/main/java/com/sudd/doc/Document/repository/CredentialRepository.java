@@ -3,12 +3,30 @@ package com.sudd.doc.Document.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.sudd.doc.Document.entity.CredentialEntity;
 
 @Repository
 public interface CredentialRepository extends JpaRepository<CredentialEntity,Long>{
     Optional<CredentialEntity> getCredentailByUserEntityId(Long userId);
+
+    // the stored hash alone, no entity or user proxy is built for a login
+    @Query("SELECT c.password FROM CredentialEntity c WHERE c.userEntity.id = :userId")
+    Optional<String> findPasswordByUserId(@Param("userId") long userId);
+
+    // replaces the hash only if it is still the one that was checked
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE credentials SET password = :password, updated_by = :updatedBy, updated_at = now()
+            WHERE user_id = :userId AND password = :previous
+            """)
+    int updatePassword(@Param("userId") long userId, @Param("previous") String previous,
+            @Param("password") String password, @Param("updatedBy") long updatedBy);
     
 }
@@ -0,0 +1,40 @@
+package com.sudd.doc.Document.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.sudd.doc.Document.Domain.DocumentSummary;
+import com.sudd.doc.Document.entity.DocumentEntity;
+
+@Repository
+public interface DocumentRepository extends JpaRepository<DocumentEntity, Long> {
+
+    Optional<DocumentEntity> findByDocumentId(String documentId);
+
+    // newest first; index_documents_created_at_id serves the order and the seek, so every page reads only its own rows
+    @Query("""
+            SELECT new com.sudd.doc.Document.Domain.DocumentSummary(d.id, d.documentId, d.name, d.description,
+                d.extension, d.size, d.formattedSize, d.icon, d.createdAt)
+            FROM DocumentEntity d
+            ORDER BY d.createdAt DESC, d.id DESC
+            """)
+    List<DocumentSummary> findSummaries(Limit limit);
+
+    // the page after the row (createdAt, id)
+    @Query("""
+            SELECT new com.sudd.doc.Document.Domain.DocumentSummary(d.id, d.documentId, d.name, d.description,
+                d.extension, d.size, d.formattedSize, d.icon, d.createdAt)
+            FROM DocumentEntity d
+            WHERE (d.createdAt, d.id) < (:createdAt, :id)
+            ORDER BY d.createdAt DESC, d.id DESC
+            """)
+    List<DocumentSummary> findSummariesBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") long id,
+            Limit limit);
+}
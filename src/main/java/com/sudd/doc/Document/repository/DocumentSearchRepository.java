@@ -0,0 +1,63 @@
+package com.sudd.doc.Document.repository;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.DataClassRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.sudd.doc.Document.Domain.DocumentSearchHit;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Full-text search over DOCUMENTS.search_vector, a stored generated column
+ * that PostgreSQL keeps up to date on every insert and update and that is
+ * served by a GIN index. Pages are keyset-paginated on (rank, id): the next
+ * page starts after the last hit of the previous one instead of skipping
+ * OFFSET rows, so deep pages cost the same as the first.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DocumentSearchRepository {
+
+    // must match the text search configuration of documents.search_vector
+    private static final String CONFIGURATION = "english";
+
+    private static final DataClassRowMapper<DocumentSearchHit> HIT_MAPPER = new DataClassRowMapper<>(DocumentSearchHit.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // websearch syntax: words, "quoted phrases", or, -excluded
+    public List<DocumentSearchHit> search(String query, int limit) {
+        return jdbcTemplate.query("""
+                SELECT d.id, d.document_id, d.name, d.description, d.extension, d.size, d.formatted_size, d.icon,
+                    d.created_at, ts_rank(d.search_vector, q) AS rank
+                FROM documents d, websearch_to_tsquery(?::regconfig, ?) q
+                WHERE d.search_vector @@ q
+                ORDER BY rank DESC, d.id DESC
+                LIMIT ?
+                """, HIT_MAPPER, CONFIGURATION, query, limit);
+    }
+
+    // the page after the hit (rank, id)
+    public List<DocumentSearchHit> searchAfter(String query, float rank, long id, int limit) {
+        return jdbcTemplate.query("""
+                SELECT * FROM (
+                    SELECT d.id, d.document_id, d.name, d.description, d.extension, d.size, d.formatted_size, d.icon,
+                        d.created_at, ts_rank(d.search_vector, q) AS rank
+                    FROM documents d, websearch_to_tsquery(?::regconfig, ?) q
+                    WHERE d.search_vector @@ q
+                ) hit
+                WHERE (hit.rank, hit.id) < (?::real, ?)
+                ORDER BY hit.rank DESC, hit.id DESC
+                LIMIT ?
+                """, HIT_MAPPER, CONFIGURATION, query, rank, id, limit);
+    }
+
+    // words of a text document, weighted below the name (A) and the description (B)
+    public void indexContent(long id, String text) {
+        jdbcTemplate.update("UPDATE documents SET content_vector = setweight(to_tsvector(?::regconfig, ?), 'C') WHERE id = ?",
+                CONFIGURATION, text, id);
+    }
+}
@@ -0,0 +1,45 @@
+package com.sudd.doc.Document.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sudd.doc.Document.entity.OutboxEntity;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEntity, Long> {
+
+    // SKIP LOCKED lets every dispatcher thread, on every node, claim a disjoint batch;
+    // moving available_at forward is the lease that hands the rows back if this node dies
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            UPDATE outbox SET attempts = attempts + 1, available_at = now() + make_interval(secs => :leaseSeconds)
+            WHERE id IN (SELECT id FROM outbox WHERE status = 'PENDING' AND available_at <= now()
+                         ORDER BY available_at LIMIT :batchSize FOR UPDATE SKIP LOCKED)
+            RETURNING *
+            """)
+    List<OutboxEntity> claim(@Param("batchSize") int batchSize, @Param("leaseSeconds") long leaseSeconds);
+
+    // attempts is the value the claim returned: a row re-claimed since (lease expired) has a higher one
+    // and belongs to its new owner, so a stale owner's delete or reschedule touches nothing
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEntity o where o.id in :ids and o.attempts = :attempts")
+    int deleteDelivered(@Param("ids") List<Long> ids, @Param("attempts") int attempts);
+
+    // the backoff is added to the database's now(), the clock the claim compares available_at to
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE outbox SET status = :status, available_at = now() + make_interval(secs => :delaySeconds),
+                last_error = :lastError
+            WHERE id = :id AND attempts = :attempts
+            """)
+    int reschedule(@Param("id") Long id, @Param("attempts") int attempts, @Param("status") String status,
+            @Param("delaySeconds") long delaySeconds, @Param("lastError") String lastError);
+}
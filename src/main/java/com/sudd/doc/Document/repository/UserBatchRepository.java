@@ -0,0 +1,137 @@
+package com.sudd.doc.Document.repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.sudd.doc.Document.entity.ConfirmationEntity;
+import com.sudd.doc.Document.entity.CredentialEntity;
+import com.sudd.doc.Document.entity.OutboxEntity;
+import com.sudd.doc.Document.entity.UserEntity;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Plain JDBC batch writer for bulk imports. Each method sends one batched
+ * statement per table (rewritten into multi-row INSERTs by the driver's
+ * reWriteBatchedInserts), instead of a persist + flush per entity.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserBatchRepository {
+
+    // must match primary_key_seq INCREMENT BY and Auditable allocationSize
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // ids handed out the same way Hibernate's pooled-lo optimizer does: nextval is the low end of a block of 50
+    public long[] allocateIds(int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        var starts = jdbcTemplate.queryForList("SELECT nextval('primary_key_seq') FROM generate_series(1, ?)", Long.class, blocks);
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = starts.get(i / ID_BLOCK_SIZE) + (i % ID_BLOCK_SIZE);
+        }
+        return ids;
+    }
+
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT lower(email) FROM users WHERE lower(email) = ANY (?)",
+                String.class, (Object) emails.toArray(String[]::new)));
+    }
+
+    public void insertUsers(List<UserEntity> users) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO users (id, user_id, first_name, last_name, email, phone, bio, reference_id, qr_code_secret,
+                    image_url, last_login, login_attempts, mfa, enabled, account_non_expired, account_non_locked,
+                    created_by, updated_by, created_at, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, users, users.size(), (ps, user) -> {
+            ps.setLong(1, user.getId());
+            ps.setObject(2, user.getUserId());
+            ps.setString(3, user.getFirstName());
+            ps.setString(4, user.getLastName());
+            ps.setString(5, user.getEmail());
+            ps.setString(6, user.getPhoneNumber());
+            ps.setString(7, user.getBio());
+            ps.setString(8, user.getReferenceId());
+            ps.setString(9, user.getQrCodeSecretKey());
+            ps.setString(10, user.getProfileImageUrl());
+            ps.setObject(11, user.getLastLoginAt());
+            ps.setInt(12, user.getLoginAttempts());
+            ps.setBoolean(13, user.isMfaEnabled());
+            ps.setBoolean(14, user.isEnabled());
+            ps.setBoolean(15, user.isAccountNonExpired());
+            ps.setBoolean(16, user.isAccountNonLocked());
+            ps.setLong(17, user.getCreatedBy());
+            ps.setLong(18, user.getUpdatedBy());
+            ps.setObject(19, user.getCreatedAt());
+            ps.setObject(20, user.getUpdatedAt());
+        });
+        jdbcTemplate.batchUpdate("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", users, users.size(),
+                (ps, user) -> {
+                    ps.setLong(1, user.getId());
+                    ps.setLong(2, user.getRole().getId());
+                });
+    }
+
+    public void insertCredentials(List<CredentialEntity> credentials) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO credentials (id, password, user_id, reference_id, created_by, updated_by, created_at, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """, credentials, credentials.size(), (ps, credential) -> {
+            ps.setLong(1, credential.getId());
+            ps.setString(2, credential.getPassword());
+            ps.setLong(3, credential.getUserEntity().getId());
+            ps.setString(4, credential.getReferenceId());
+            ps.setLong(5, credential.getCreatedBy());
+            ps.setLong(6, credential.getUpdatedBy());
+            ps.setObject(7, credential.getCreatedAt());
+            ps.setObject(8, credential.getUpdatedAt());
+        });
+    }
+
+    public void insertConfirmations(List<ConfirmationEntity> confirmations) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO confirmations (id, key, user_id, reference_id, created_by, updated_by, created_at, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """, confirmations, confirmations.size(), (ps, confirmation) -> {
+            ps.setLong(1, confirmation.getId());
+            ps.setObject(2, confirmation.getKey());
+            ps.setLong(3, confirmation.getUserEntity().getId());
+            ps.setString(4, confirmation.getReferenceId());
+            ps.setLong(5, confirmation.getCreatedBy());
+            ps.setLong(6, confirmation.getUpdatedBy());
+            ps.setObject(7, confirmation.getCreatedAt());
+            ps.setObject(8, confirmation.getUpdatedAt());
+        });
+    }
+
+    public void insertOutbox(List<OutboxEntity> messages) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO outbox (id, event_type, user_id, payload, status, attempts, reference_id,
+                    created_by, updated_by, created_at, updated_at)
+                VALUES (?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?)
+                """, messages, messages.size(), (ps, message) -> {
+            // available_at is left to the column default, see OutboxEntity
+            ps.setLong(1, message.getId());
+            ps.setString(2, message.getEventType().name());
+            ps.setLong(3, message.getUserId());
+            ps.setString(4, message.getPayload());
+            ps.setString(5, message.getStatus().name());
+            ps.setString(6, message.getReferenceId());
+            ps.setLong(7, message.getCreatedBy());
+            ps.setLong(8, message.getUpdatedBy());
+            ps.setObject(9, message.getCreatedAt());
+            ps.setObject(10, message.getUpdatedAt());
+        });
+    }
+}
@@ -1,13 +1,72 @@
 package com.sudd.doc.Document.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.sudd.doc.Document.entity.UserEntity; 
+import com.sudd.doc.Document.Domain.UserSummary;
+import com.sudd.doc.Document.entity.UserEntity;
 
-public interface UserRepository extends JpaRepository<UserEntity,Long> {
-    Optional<UserEntity> findByEmailIgnoreCase(String email);
-    Optional<UserEntity> findUserByUserId(String userId);
+// findByEmailIgnoreCase and findUserByUserId come from UserRepositoryCustom and are served from the second-level cache.
+// the native statements below bypass that cache, their callers evict the user through UserCache
+public interface UserRepository extends JpaRepository<UserEntity,Long>, UserRepositoryCustom {
+
+    // the user a confirmation belonged to, and whether it was still within its ttl
+    interface ConfirmationResult {
+        Long getUserId();
+        Boolean getValid();
+    }
+
+    // one round trip: consumes the confirmation and, unless it is older than the ttl, enables its user.
+    // empty when the key is unknown, valid is false when it had expired
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            WITH confirmation AS (
+                DELETE FROM confirmations WHERE key = :key
+                RETURNING user_id, created_at > now() - make_interval(secs => :ttlSeconds) AS valid
+            ), enabled AS (
+                UPDATE users SET enabled = true, updated_by = :updatedBy, updated_at = now()
+                FROM confirmation WHERE users.id = confirmation.user_id AND confirmation.valid
+            )
+            SELECT user_id AS "userId", valid FROM confirmation
+            """)
+    Optional<ConfirmationResult> enableByConfirmationKey(@Param("key") UUID key, @Param("ttlSeconds") long ttlSeconds,
+            @Param("updatedBy") long updatedBy);
+
+    // SIGNED verification tokens: the token already proved the id, empty when the user no longer exists
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            UPDATE users SET enabled = true, updated_by = :updatedBy, updated_at = now()
+            WHERE id = :id
+            RETURNING id
+            """)
+    Optional<Long> enableById(@Param("id") long id, @Param("updatedBy") long updatedBy);
+
+    // newest first, seeking on index_users_created_at_id; a projection, so no entity, role or credentials are loaded
+    @Query("""
+            SELECT new com.sudd.doc.Document.Domain.UserSummary(u.id, u.userId, u.firstName, u.lastName, u.email,
+                r.name, u.isEnabled, u.createdAt)
+            FROM UserEntity u LEFT JOIN u.role r
+            ORDER BY u.createdAt DESC, u.id DESC
+            """)
+    List<UserSummary> findSummaries(Limit limit);
+
+    // the page after the row (createdAt, id)
+    @Query("""
+            SELECT new com.sudd.doc.Document.Domain.UserSummary(u.id, u.userId, u.firstName, u.lastName, u.email,
+                r.name, u.isEnabled, u.createdAt)
+            FROM UserEntity u LEFT JOIN u.role r
+            WHERE (u.createdAt, u.id) < (:createdAt, :id)
+            ORDER BY u.createdAt DESC, u.id DESC
+            """)
+    List<UserSummary> findSummariesBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") long id,
+            Limit limit);
     
 }
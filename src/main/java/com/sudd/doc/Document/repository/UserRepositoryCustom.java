@@ -0,0 +1,14 @@
+package com.sudd.doc.Document.repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import com.sudd.doc.Document.entity.UserEntity;
+
+// the user lookups served from the second-level cache, implemented by UserRepositoryCustomImpl
+public interface UserRepositoryCustom {
+
+    Optional<UserEntity> findByEmailIgnoreCase(String email);
+
+    Optional<UserEntity> findUserByUserId(UUID userId);
+}
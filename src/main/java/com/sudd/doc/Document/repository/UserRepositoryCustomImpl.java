@@ -0,0 +1,79 @@
+package com.sudd.doc.Document.repository;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.graph.GraphSemantic;
+import org.hibernate.graph.RootGraph;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sudd.doc.Document.Cache.UserCache;
+import com.sudd.doc.Document.entity.UserEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Whole-user lookups, with the role the UserEntity.role graph names. A
+ * userId is resolved through Hibernate's natural-id cache, an email through
+ * UserCache's email to id mapping; either way the user and its role then
+ * come from the second-level cache, so a repeated lookup runs no SQL. A
+ * cached email mapping is checked against the user it points to, a user who
+ * changed email or was deleted is looked up again.
+ */
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private final UserCache userCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UserEntity> findByEmailIgnoreCase(String email) {
+        var key = email.toLowerCase(Locale.ROOT);
+        var id = userCache.getIdByEmail(key);
+        if (id != null) {
+            var user = session().byId(UserEntity.class).with(roleGraph(), GraphSemantic.LOAD).load(id);
+            if (user != null && user.getEmail() != null && key.equals(user.getEmail().toLowerCase(Locale.ROOT))) {
+                return Optional.of(withRole(user));
+            }
+            userCache.removeEmail(key);
+        }
+        // index_users_lower_email
+        var user = entityManager.createQuery("SELECT u FROM UserEntity u WHERE lower(u.email) = :email", UserEntity.class)
+                .setParameter("email", key)
+                .setHint(GraphSemantic.LOAD.getJakartaHintName(), roleGraph())
+                .getResultStream().findFirst();
+        user.ifPresent(found -> userCache.putEmail(key, found.getId()));
+        return user;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UserEntity> findUserByUserId(UUID userId) {
+        return session().bySimpleNaturalId(UserEntity.class).with(roleGraph(), GraphSemantic.LOAD).loadOptional(userId)
+                .map(this::withRole);
+    }
+
+    // the graph is applied when the user is read from the database, not when it comes from the cache;
+    // the role then resolves from the roles region
+    private UserEntity withRole(UserEntity user) {
+        Hibernate.initialize(user.getRole());
+        return user;
+    }
+
+    private Session session() {
+        return entityManager.unwrap(Session.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private RootGraph<UserEntity> roleGraph() {
+        return (RootGraph<UserEntity>) entityManager.getEntityGraph("UserEntity.role");
+    }
+}
@@ -0,0 +1,11 @@
+package com.sudd.doc.Document.service;
+
+import java.util.Optional;
+
+import com.sudd.doc.Document.entity.UserEntity;
+
+public interface AuthenticationService {
+
+    // the user these credentials belong to, empty for an unknown email or a wrong password
+    Optional<UserEntity> authenticate(String email, String password);
+}
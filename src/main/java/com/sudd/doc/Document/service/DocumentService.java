@@ -0,0 +1,37 @@
+package com.sudd.doc.Document.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+import com.sudd.doc.Document.Domain.CursorPage;
+import com.sudd.doc.Document.Domain.DocumentSearchHit;
+import com.sudd.doc.Document.Domain.DocumentSummary;
+import com.sudd.doc.Document.entity.DocumentEntity;
+
+public interface DocumentService {
+
+    // content is streamed to storage as it is read, never held in memory
+    DocumentEntity upload(InputStream content, String name, String description);
+
+    // an empty file next to the storage, for content that is assembled before it becomes a document
+    Path createTemporaryFile() throws IOException;
+
+    long getMaxFileSize();
+
+    // moves a complete file into storage, or drops it when the same content is already stored, and records it
+    DocumentEntity save(Path content, String name, String description);
+
+    DocumentEntity getDocument(String documentId);
+
+    Path getContent(DocumentEntity document);
+
+    // newest first, keyset-paginated on (created_at, id); cursor is null for the first page
+    CursorPage<DocumentSummary> getDocuments(String cursor, int size);
+
+    // ranked by relevance to name, description and the text of text documents; cursor is null for the first page
+    CursorPage<DocumentSearchHit> search(String query, String cursor, int size);
+
+    // the content is released, and removed by BlobCollectorJob once no document uses it
+    void deleteDocument(String documentId);
+}
@@ -1,10 +1,11 @@
 package com.sudd.doc.Document.service;
 
-
+import java.util.concurrent.CompletableFuture;
 
 
 public interface EmailService {
     
-    void sendNewAccountEmail(String name , String email , String token);
-    void sendPasswordResetEmail(String name , String email , String token);
+    // completes once the mail server accepted the message; the caller decides how long to wait
+    CompletableFuture<Void> sendNewAccountEmail(String name , String email , String token);
+    CompletableFuture<Void> sendPasswordResetEmail(String name , String email , String token);
 }
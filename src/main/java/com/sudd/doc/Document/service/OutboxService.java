@@ -0,0 +1,23 @@
+package com.sudd.doc.Document.service;
+
+import java.util.List;
+import java.util.Map;
+
+import com.sudd.doc.Document.Event.EventType;
+import com.sudd.doc.Document.entity.OutboxEntity;
+import com.sudd.doc.Document.entity.UserEntity;
+
+public interface OutboxService {
+
+    void enqueue(UserEntity userEntity, EventType eventType, Map<String, ?> data);
+
+    String toPayload(Map<String, ?> data);
+
+    Map<?, ?> fromPayload(String payload);
+
+    List<OutboxEntity> claim(int batchSize);
+
+    void delivered(List<OutboxEntity> messages);
+
+    void failed(OutboxEntity message, String error);
+}
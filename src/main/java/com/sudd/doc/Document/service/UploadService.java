@@ -0,0 +1,20 @@
+package com.sudd.doc.Document.service;
+
+import java.io.InputStream;
+
+import com.sudd.doc.Document.Domain.UploadStatus;
+import com.sudd.doc.Document.entity.DocumentEntity;
+
+public interface UploadService {
+
+    UploadStatus createUpload(String name, String description, long size);
+
+    // chunks may arrive in any order and in parallel; sending a chunk again overwrites it
+    UploadStatus writeChunk(String uploadId, int index, InputStream content);
+
+    UploadStatus getUpload(String uploadId);
+
+    DocumentEntity commitUpload(String uploadId);
+
+    void abortUpload(String uploadId);
+}
@@ -0,0 +1,15 @@
+package com.sudd.doc.Document.service;
+
+import java.io.InputStream;
+
+import org.springframework.http.MediaType;
+
+import com.sudd.doc.Document.Domain.ImportResult;
+
+public interface UserImportService {
+
+    MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    ImportResult importUsers(InputStream input, MediaType format);
+}
@@ -1,5 +1,7 @@
 package com.sudd.doc.Document.service;
 
+import com.sudd.doc.Document.Domain.CursorPage;
+import com.sudd.doc.Document.Domain.UserSummary;
 import com.sudd.doc.Document.entity.RolesEntity;
 
 public interface UserService {
@@ -7,5 +9,7 @@ public interface UserService {
     void CreateUser(String firstName,String lastName, String email, String password);
     RolesEntity getRoleName(String name);
     void VerifyAccountToken(String key);
+    // newest first, keyset-paginated on (created_at, id); cursor is null for the first page
+    CursorPage<UserSummary> getUsers(String cursor, int size);
     
 }
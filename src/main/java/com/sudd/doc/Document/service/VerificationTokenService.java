@@ -0,0 +1,13 @@
+package com.sudd.doc.Document.service;
+
+import com.sudd.doc.Document.Enum.VerificationMode;
+
+public interface VerificationTokenService {
+
+    VerificationMode getMode();
+
+    String sign(long userId);
+
+    // the user id of a valid token; a forged or expired token fails with an ApiException without touching the database
+    long verify(String token);
+}
@@ -0,0 +1,54 @@
+package com.sudd.doc.Document.utils;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+import com.sudd.doc.Document.Constant.Constants;
+import com.sudd.doc.Document.Exception.ApiException;
+
+// opaque keyset pagination cursors: the sort key of the last row of a page, as url-safe base64
+public class CursorUtils {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public static int getPageSize(int requested) {
+        return Math.max(1, Math.min(requested, Constants.MAX_PAGE_SIZE));
+    }
+
+    public static String encode(long... values) {
+        var buffer = ByteBuffer.allocate(values.length * Long.BYTES);
+        for (var value : values) {
+            buffer.putLong(value);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    // timestamps are stored with microsecond precision, so a timestamp survives the round trip exactly
+    public static long toEpochMicros(LocalDateTime value) {
+        return ChronoUnit.MICROS.between(EPOCH, value);
+    }
+
+    public static LocalDateTime fromEpochMicros(long micros) {
+        return EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    public static long[] decode(String cursor, int count) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException exception) {
+            throw new ApiException("Invalid cursor");
+        }
+        if (bytes.length != count * Long.BYTES) {
+            throw new ApiException("Invalid cursor");
+        }
+        var buffer = ByteBuffer.wrap(bytes);
+        var values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = buffer.getLong();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,53 @@
+package com.sudd.doc.Document.utils;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+import org.apache.commons.lang3.StringUtils;
+
+public class DocumentUtils {
+
+    private static final String[] UNITS = { "B", "KB", "MB", "GB", "TB" };
+
+    // fits the documents.extension column
+    private static final int MAX_EXTENSION_LENGTH = 10;
+
+    public static String getExtension(String name) {
+        var extension = name.contains(".") ? StringUtils.substringAfterLast(name, ".") : StringUtils.EMPTY;
+        return StringUtils.left(extension.toLowerCase(Locale.ROOT), MAX_EXTENSION_LENGTH);
+    }
+
+    // icon key the client maps to an image
+    public static String getIcon(String extension) {
+        return switch (extension) {
+            case "pdf" -> "pdf";
+            case "doc", "docx", "odt", "rtf" -> "word";
+            case "xls", "xlsx", "ods", "csv" -> "excel";
+            case "png", "jpg", "jpeg", "gif", "tif", "tiff" -> "image";
+            default -> "file";
+        };
+    }
+
+    // content that is indexed for search as is, other formats are found by name and description only
+    public static boolean isText(String extension) {
+        return switch (extension) {
+            case "txt", "text", "md", "csv", "tsv", "log", "json", "xml", "html", "htm" -> true;
+            default -> false;
+        };
+    }
+
+    public static String getFormattedSize(long size) {
+        int unit = 0;
+        double value = size;
+        while (value >= 1024 && unit < UNITS.length - 1) {
+            value /= 1024;
+            unit++;
+        }
+        return unit == 0 ? size + " B" : String.format(Locale.ROOT, "%.1f %s", value, UNITS[unit]);
+    }
+
+    // blobs/ab/cd/abcd..., two levels of fan-out keep every directory small
+    public static Path getBlobPath(Path root, String hash) {
+        return root.resolve("blobs").resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+}
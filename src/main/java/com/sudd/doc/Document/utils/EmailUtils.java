@@ -28,12 +28,12 @@ public class EmailUtils {
                "📩 Need help? Contact us at support@securedoc.com";
     }
     
-    private static String getResetPasswordUrl(String host, String key) {
+    public static String getResetPasswordUrl(String host, String key) {
         return host + "/password?key=" + key;
     }
     
 
-    private static String getverificationUrl(String host, String key) {
+    public static String getverificationUrl(String host, String key) {
         return host + "/verify/account?key=" + key;
 
     }
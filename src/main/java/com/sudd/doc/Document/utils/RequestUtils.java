@@ -1,6 +1,9 @@
 package com.sudd.doc.Document.utils;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
@@ -11,10 +14,27 @@ import jakarta.servlet.http.HttpServletRequest;
 
 public class RequestUtils {
 
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
+    // the last formatted time; every response within the same millisecond shares its string
+    private record Tick(long millis, String time) {
+    }
+
+    private static volatile Tick tick = new Tick(Long.MIN_VALUE, null);
+
     public static Response getResponse(HttpServletRequest request, Map<?, ?> data, String message, HttpStatus status) {
-        return new Response(LocalDateTime.now().toString(), status.value(), request.getRequestURI(), HttpStatus.valueOf(
-                status.value()), message, StringUtils.EMPTY, data);
+        return new Response(getTime(), status.value(), request.getRequestURI(), status, message, StringUtils.EMPTY, data);
+    }
 
-                
+    // local time with millisecond resolution, formatted at most once per millisecond
+    static String getTime() {
+        long millis = System.currentTimeMillis();
+        var last = tick;
+        if (last.millis() == millis) {
+            return last.time();
+        }
+        var time = TIME_FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()));
+        tick = new Tick(millis, time);
+        return time;
     }
 }
@@ -1,21 +1,29 @@
 package com.sudd.doc.Document.utils;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.sudd.doc.Document.Event.EventType;
 import com.sudd.doc.Document.entity.UserEntity;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
-@AllArgsConstructor
 public class UserEvent {
     private UserEntity userEntity;
     private EventType eventType;
     // ? , ? data of anything 
     private Map<?,?> data;
+    // set by a listener that handed the event to something asynchronous (the mail queue), null when
+    // the event was fully handled by the time publishEvent returned
+    private CompletableFuture<Void> delivery;
+
+    public UserEvent(UserEntity userEntity, EventType eventType, Map<?, ?> data) {
+        this.userEntity = userEntity;
+        this.eventType = eventType;
+        this.data = data;
+    }
     
 }
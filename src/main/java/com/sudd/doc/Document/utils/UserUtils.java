@@ -1,7 +1,6 @@
 package com.sudd.doc.Document.utils;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 import org.apache.commons.lang3.StringUtils;
 import com.sudd.doc.Document.entity.RolesEntity;
 import com.sudd.doc.Document.entity.UserEntity;
@@ -11,7 +10,7 @@ public class UserUtils {
     public static UserEntity createUserEntity(String firstName, String lastName, String email, RolesEntity role) {
         // default user saving
         return UserEntity.builder()
-                .userId(UUID.randomUUID().toString())
+                .userId(UuidGenerator.generateSecure())
                 .firstName(firstName)
                 .lastName(lastName)
                 .email(email)
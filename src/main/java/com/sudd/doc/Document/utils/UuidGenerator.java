@@ -0,0 +1,101 @@
+package com.sudd.doc.Document.utils;
+
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs (version 7, RFC 9562): a 48-bit Unix millisecond
+ * timestamp, a 12-bit sequence and 62 random bits. Consecutive ids sort in
+ * creation order, so they land at the right-hand edge of a B-tree index
+ * instead of at random pages.
+ *
+ * One shared, lock-free source: the timestamp and sequence are advanced with a
+ * compare-and-set, so ids from this JVM are strictly increasing even within a
+ * millisecond (the timestamp runs ahead for more than 4096 in one millisecond
+ * and catches up afterwards) or when the clock steps back.
+ *
+ * generate() takes the random bits from ThreadLocalRandom, whose output can be
+ * predicted from earlier ids: use it for internal references only.
+ * generateSecure() takes them from a small set of DRBG SecureRandoms picked by
+ * thread id, for ids that are handed out (userId) or act as secrets
+ * (confirmation keys). Each one is drawn from in blocks of 512 bytes, a DRBG
+ * call costs about the same for 8 bytes as for 512. UUID.randomUUID() shares
+ * one SecureRandom across the JVM, so concurrent registrations queue on its
+ * lock.
+ */
+public final class UuidGenerator {
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    // timestamp << SEQUENCE_BITS | sequence of the last id handed out
+    private static final AtomicLong LAST = new AtomicLong();
+
+    // a power of two, so a thread id maps to a stripe with a mask
+    private static final SecureBits[] SECURE_BITS = new SecureBits[
+            Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) * 2];
+
+    static {
+        for (int i = 0; i < SECURE_BITS.length; i++) {
+            SECURE_BITS[i] = new SecureBits();
+        }
+    }
+
+    private static final class SecureBits {
+
+        private final SecureRandom random;
+        private final ByteBuffer buffer = ByteBuffer.allocate(512).position(512);
+
+        SecureBits() {
+            try {
+                random = SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException exception) {
+                throw new IllegalStateException(exception);
+            }
+        }
+
+        synchronized long nextLong() {
+            if (!buffer.hasRemaining()) {
+                random.nextBytes(buffer.array());
+                buffer.clear();
+            }
+            return buffer.getLong();
+        }
+    }
+
+    private UuidGenerator() {
+    }
+
+    public static UUID generate() {
+        return create(ThreadLocalRandom.current().nextLong());
+    }
+
+    // 62 unpredictable bits: far beyond guessing online, even with many keys outstanding
+    public static UUID generateSecure() {
+        var bits = SECURE_BITS[(int) Thread.currentThread().threadId() & (SECURE_BITS.length - 1)];
+        return create(bits.nextLong());
+    }
+
+    private static UUID create(long random) {
+        long now = System.currentTimeMillis() << SEQUENCE_BITS;
+        long next = LAST.updateAndGet(last -> Math.max(now, last + 1));
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        long mostSignificant = timestamp << 16 | VERSION | sequence;
+        return new UUID(mostSignificant, VARIANT | random & RANDOM_MASK);
+    }
+
+    // the creation time encoded in a version 7 id, in epoch milliseconds
+    public static long getTimestamp(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("Not a version 7 UUID: " + uuid);
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
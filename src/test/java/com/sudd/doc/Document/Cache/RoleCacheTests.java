@@ -0,0 +1,48 @@
+package com.sudd.doc.Document.Cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.sudd.doc.Document.Enum.Authority;
+import com.sudd.doc.Document.entity.RolesEntity;
+import com.sudd.doc.Document.repository.RoleRepository;
+
+class RoleCacheTests {
+
+    private final RoleRepository roleRepository = mock(RoleRepository.class);
+    private final RoleCache roleCache = new RoleCache(roleRepository);
+
+    @Test
+    void rolesAreServedFromTheSnapshot() {
+        when(roleRepository.findAll()).thenReturn(List.of(new RolesEntity("USER", Authority.USER)));
+
+        assertThat(roleCache.getByName("user")).isPresent();
+        assertThat(roleCache.getByAuthority(Authority.USER)).isPresent();
+
+        verify(roleRepository, times(1)).findAll();
+        assertThat(roleCache.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void aReloadThatRacedARoleWriteIsNotKept() {
+        // the table is read, then a role write commits before the reload finishes
+        when(roleRepository.findAll()).thenAnswer(invocation -> {
+            roleCache.invalidate();
+            return List.of(new RolesEntity("USER", Authority.USER));
+        }).thenReturn(List.of(new RolesEntity("USER", Authority.USER)));
+
+        assertThat(roleCache.getByName("USER")).isPresent();
+        assertThat(roleCache.getByName("USER")).isPresent();
+        assertThat(roleCache.getByName("USER")).isPresent();
+
+        // the stale read was returned to its caller but not cached; the second lookup reloaded
+        verify(roleRepository, times(2)).findAll();
+    }
+}
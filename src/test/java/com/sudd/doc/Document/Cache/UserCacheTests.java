@@ -0,0 +1,95 @@
+package com.sudd.doc.Document.Cache;
+
+import static com.sudd.doc.Document.utils.QueryCounter.assertStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Locale;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.sudd.doc.Document.repository.UserRepository;
+import com.sudd.doc.Document.service.EmailService;
+import com.sudd.doc.Document.service.UserService;
+import com.sudd.doc.Document.utils.TestUsers;
+
+@SpringBootTest
+@Sql("/seed.sql")
+class UserCacheTests {
+
+    @Autowired
+    private UserService userService;
+
+    @RegisterExtension
+    final TestUsers users = new TestUsers();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @Test
+    void repeatedLookupsAreServedWithoutSql() {
+        var email = register();
+
+        var first = assertStatements(1, () -> userRepository.findByEmailIgnoreCase(email.toUpperCase(Locale.ROOT)).orElseThrow());
+        var cached = assertStatements(0, () -> userRepository.findByEmailIgnoreCase(email).orElseThrow());
+        var byUserId = assertStatements(0, () -> userRepository.findUserByUserId(first.getUserId()).orElseThrow());
+
+        assertThat(cached.getId()).isEqualTo(first.getId());
+        assertThat(byUserId.getId()).isEqualTo(first.getId());
+        assertThat(Hibernate.isInitialized(cached.getRole())).isTrue();
+        assertThat(cached.getRole().getName()).isEqualTo("USER");
+        assertThat(userCache.getStatistics())
+                .filteredOn(statistics -> statistics.region().equals(UserCache.EMAIL_REGION))
+                .singleElement()
+                .satisfies(statistics -> {
+                    assertThat(statistics.size()).isPositive();
+                    assertThat(statistics.hits()).isPositive();
+                    assertThat(statistics.hitRate()).isBetween(0.0, 1.0);
+                });
+    }
+
+    @Test
+    void nativeVerificationEvictsTheCachedUser() {
+        var email = register();
+        assertThat(userRepository.findByEmailIgnoreCase(email).orElseThrow().isEnabled()).isFalse();
+        var key = jdbcTemplate.queryForObject(
+                "SELECT c.key FROM confirmations c JOIN users u ON u.id = c.user_id WHERE u.email = ?", String.class, email);
+
+        userService.VerifyAccountToken(key);
+
+        assertThat(userRepository.findByEmailIgnoreCase(email).orElseThrow().isEnabled()).isTrue();
+    }
+
+    @Test
+    void changedEmailIsNotServedFromTheCache() {
+        var email = register();
+        var user = userRepository.findByEmailIgnoreCase(email).orElseThrow();
+        var changed = "changed-" + email;
+        users.track(changed);
+
+        user.setEmail(changed);
+        userRepository.save(user);
+
+        assertThat(userRepository.findByEmailIgnoreCase(email)).isEmpty();
+        assertThat(userRepository.findByEmailIgnoreCase(changed)).get().extracting(u -> u.getId()).isEqualTo(user.getId());
+    }
+
+    private String register() {
+        return users.register("cache");
+    }
+}
@@ -0,0 +1,127 @@
+package com.sudd.doc.Document.Context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.sudd.doc.Document.Domain.RequestContext;
+import com.sudd.doc.Document.service.EmailService;
+import com.sudd.doc.Document.service.UserService;
+import com.sudd.doc.Document.utils.TestUsers;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Sql("/seed.sql")
+class UserContextTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserContextTaskDecorator taskDecorator;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    private UserService userService;
+
+    @RegisterExtension
+    final TestUsers users = new TestUsers();
+
+    @MockitoBean
+    private EmailService emailService;
+
+    private String actor;
+    private String email;
+
+    @BeforeEach
+    void addresses() {
+        // in this order: deleted newest first, the user goes before the actor it references
+        actor = users.email("actor");
+        email = users.email("user");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        RequestContext.start();
+    }
+
+    @Test
+    void entitiesAreAuditedAsTheSessionUser() throws Exception {
+        userService.CreateUser("John", "Doe", actor, "password");
+        var actorId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, actor);
+
+        mockMvc.perform(post("/user/register").sessionAttr(RequestContext.USER_ID_ATTRIBUTE, actorId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"firstName": "Jane", "lastName": "Doe", "email": "%s", "password": "password"}
+                        """.formatted(email)))
+                .andExpect(status().isCreated());
+
+        assertThat(jdbcTemplate.queryForList("""
+                SELECT created_by FROM users WHERE email = ?
+                UNION ALL SELECT c.updated_by FROM credentials c JOIN users u ON u.id = c.user_id WHERE u.email = ?
+                """, Long.class, email, email)).containsExactly(actorId, actorId);
+        // MockMvc runs the request on this thread: the filter cleared it on the way out
+        assertThat(RequestContext.getUserId()).isNull();
+    }
+
+    @Test
+    void anonymousRequestsAreAuditedAsTheSystemUser() throws Exception {
+        mockMvc.perform(post("/user/register").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"firstName": "Jane", "lastName": "Doe", "email": "%s", "password": "password"}
+                        """.formatted(email)))
+                .andExpect(status().isCreated());
+
+        assertThat(jdbcTemplate.queryForObject("SELECT created_by FROM users WHERE email = ?", Long.class, email))
+                .isEqualTo(RequestContext.SYSTEM_USER_ID);
+    }
+
+    @Test
+    void asyncTasksRunAsTheirSubmitter() throws Exception {
+        RequestContext.setUserId(7L);
+
+        assertThat(applicationTaskExecutor.submit(RequestContext::getUserId).get()).isEqualTo(7L);
+    }
+
+    @Test
+    void pooledThreadsDoNotKeepTheUser() throws Exception {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setTaskDecorator(taskDecorator);
+        executor.initialize();
+        try {
+            RequestContext.setUserId(7L);
+            assertThat(executor.submit(RequestContext::getUserId).get()).isEqualTo(7L);
+
+            RequestContext.start();
+            // the same worker thread, which ran as user 7 a moment ago
+            assertThat(executor.submit(RequestContext::getUserId).get()).isNull();
+            assertThat(executor.submit(RequestContext::getUserIdOrSystem).get()).isEqualTo(RequestContext.SYSTEM_USER_ID);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
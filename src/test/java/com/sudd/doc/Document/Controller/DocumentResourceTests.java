@@ -0,0 +1,280 @@
+package com.sudd.doc.Document.Controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sudd.doc.Document.Job.BlobCollectorJob;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Sql("/seed.sql")
+class DocumentResourceTests {
+
+    @TempDir
+    static Path storage;
+
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        registry.add("securedoc.storage.location", storage::toString);
+        registry.add("securedoc.upload.chunk-size", () -> "1MB");
+        registry.add("securedoc.upload.max-sessions", () -> "2");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BlobCollectorJob blobCollectorJob;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private final List<String> documentIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        for (var documentId : documentIds) {
+            jdbcTemplate.update("DELETE FROM documents WHERE document_id = ?", documentId);
+        }
+        jdbcTemplate.update("DELETE FROM blobs WHERE hash NOT IN (SELECT blob_hash FROM documents WHERE blob_hash IS NOT NULL)");
+    }
+
+    @Test
+    void uploadsAndDownloadsWholeFilesAndRanges() throws Exception {
+        var content = new byte[3 * 1024 * 1024 + 17];
+        new Random(42).nextBytes(content);
+
+        var document = upload("scan%20archive.pdf", content);
+        var documentId = document.path("documentId").asText();
+        assertThat(document.path("size").asLong()).isEqualTo(content.length);
+        assertThat(document.path("extension").asText()).isEqualTo("pdf");
+        assertThat(blob(documentId)).hasSize(content.length);
+        assertThat(storage.resolve("uploads")).isEmptyDirectory();
+
+        var whole = client.send(HttpRequest.newBuilder(uri("/document/" + documentId + "/content")).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(whole.statusCode()).isEqualTo(200);
+        assertThat(whole.headers().firstValue("Accept-Ranges")).hasValue("bytes");
+        assertThat(whole.body()).isEqualTo(content);
+
+        var range = client.send(HttpRequest.newBuilder(uri("/document/" + documentId + "/content"))
+                .header("Range", "bytes=1048576-1048675").build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(range.statusCode()).isEqualTo(206);
+        assertThat(range.headers().firstValue("Content-Range")).hasValue("bytes 1048576-1048675/" + content.length);
+        assertThat(range.body()).isEqualTo(Arrays.copyOfRange(content, 1048576, 1048676));
+
+        var suffix = client.send(HttpRequest.newBuilder(uri("/document/" + documentId + "/content"))
+                .header("Range", "bytes=-10").build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(suffix.body()).isEqualTo(Arrays.copyOfRange(content, content.length - 10, content.length));
+
+        var unsatisfiable = client.send(HttpRequest.newBuilder(uri("/document/" + documentId + "/content"))
+                .header("Range", "bytes=" + content.length + "-").build(), HttpResponse.BodyHandlers.discarding());
+        assertThat(unsatisfiable.statusCode()).isEqualTo(416);
+        assertThat(unsatisfiable.headers().firstValue("Content-Range")).hasValue("bytes */" + content.length);
+    }
+
+    @Test
+    void openUploadsAreCappedUntilOneFinishes() throws Exception {
+        var first = createUpload(1024);
+        var second = createUpload(1024);
+
+        var refused = client.send(HttpRequest.newBuilder(uri("/document/uploads?name=third.pdf&size=1024"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.discarding());
+        assertThat(refused.statusCode()).isEqualTo(503);
+
+        var aborted = client.send(HttpRequest.newBuilder(uri("/document/uploads/" + first)).DELETE().build(),
+                HttpResponse.BodyHandlers.discarding());
+        assertThat(aborted.statusCode()).isEqualTo(200);
+        var third = createUpload(1024);
+
+        for (var uploadId : List.of(second, third)) {
+            client.send(HttpRequest.newBuilder(uri("/document/uploads/" + uploadId)).DELETE().build(),
+                    HttpResponse.BodyHandlers.discarding());
+        }
+        assertThat(storage.resolve("uploads")).isEmptyDirectory();
+    }
+
+    @Test
+    void chunkedUploadAcceptsChunksInAnyOrderAndReportsMissingOnes() throws Exception {
+        var content = new byte[3 * 1024 * 1024 + 17];
+        new Random(7).nextBytes(content);
+        var created = client.send(HttpRequest.newBuilder(uri("/document/uploads?name=archive.zip&size=" + content.length))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(created.statusCode()).isEqualTo(201);
+        var upload = objectMapper.readTree(created.body()).path("data").path("upload");
+        var uploadId = upload.path("uploadId").asText();
+        assertThat(upload.path("chunkCount").asInt()).isEqualTo(4);
+
+        // last and second chunk first, in parallel
+        CompletableFuture.allOf(putChunk(uploadId, 3, content), putChunk(uploadId, 1, content)).get(30, TimeUnit.SECONDS);
+        var status = client.send(HttpRequest.newBuilder(uri("/document/uploads/" + uploadId)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(objectMapper.readTree(status.body()).path("data").path("upload").path("missing").toString()).isEqualTo("[0,2]");
+        var early = client.send(HttpRequest.newBuilder(uri("/document/uploads/" + uploadId + "/commit"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.discarding());
+        assertThat(early.statusCode()).isNotEqualTo(201);
+
+        CompletableFuture.allOf(putChunk(uploadId, 0, content), putChunk(uploadId, 2, content)).get(30, TimeUnit.SECONDS);
+        var committed = client.send(HttpRequest.newBuilder(uri("/document/uploads/" + uploadId + "/commit"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(committed.statusCode()).isEqualTo(201);
+        var documentId = objectMapper.readTree(committed.body()).path("data").path("document").path("documentId").asText();
+        documentIds.add(documentId);
+
+        var whole = client.send(HttpRequest.newBuilder(uri("/document/" + documentId + "/content")).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(whole.body()).isEqualTo(content);
+        assertThat(storage.resolve("uploads")).isEmptyDirectory();
+    }
+
+    @Test
+    void identicalContentIsStoredOnceAndCollectedAfterTheLastDelete() throws Exception {
+        var content = new byte[256 * 1024];
+        new Random(11).nextBytes(content);
+
+        var first = upload("invoice.pdf", content).path("documentId").asText();
+        var second = upload("invoice-copy.pdf", content).path("documentId").asText();
+        assertThat(first).isNotEqualTo(second);
+        var blob = blob(first);
+        assertThat(blob(second)).isEqualTo(blob);
+        assertThat(refCount(blob)).isEqualTo(2);
+        try (var files = Files.walk(storage.resolve("blobs"))) {
+            assertThat(files.filter(file -> file.getFileName().equals(blob.getFileName()))).containsExactly(blob);
+        }
+        assertThat(storage.resolve("uploads")).isEmptyDirectory();
+
+        delete(first);
+        assertThat(refCount(blob)).isEqualTo(1);
+        assertThat(blobCollectorJob.collect()).isZero();
+        var download = client.send(HttpRequest.newBuilder(uri("/document/" + second + "/content")).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(download.body()).isEqualTo(content);
+
+        delete(second);
+        assertThat(refCount(blob)).isZero();
+        assertThat(blobCollectorJob.collect()).isEqualTo(1);
+        assertThat(blob).doesNotExist();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM blobs WHERE hash = ?", Long.class,
+                blob.getFileName().toString())).isZero();
+    }
+
+    @Test
+    void searchRanksNameAboveContentAndPagesWithCursors() throws Exception {
+        var term = "zephyr" + new Random().nextInt(1_000_000);
+        var inName = upload(term + "%20report.pdf", "quarterly numbers".getBytes()).path("documentId").asText();
+        var inContent = upload("notes.txt", ("minutes mentioning " + term + " once").getBytes()).path("documentId").asText();
+        var inBoth = upload(term + ".txt", (term + " " + term).getBytes()).path("documentId").asText();
+        upload("unrelated.txt", "nothing to see".getBytes());
+
+        var first = search("/document/search?size=2&query=" + term);
+        assertThat(first.path("content").findValuesAsText("documentId")).containsExactly(inBoth, inName);
+        assertThat(first.path("content").get(0).has("id")).isFalse();
+        var cursor = first.path("nextCursor").asText();
+        assertThat(cursor).isNotEmpty();
+
+        var second = search("/document/search?size=2&query=" + term + "&cursor=" + cursor);
+        assertThat(second.path("content").findValuesAsText("documentId")).containsExactly(inContent);
+        assertThat(second.has("nextCursor")).isFalse();
+
+        var invalid = client.send(HttpRequest.newBuilder(uri("/document/search?query=" + term + "&cursor=x")).build(),
+                HttpResponse.BodyHandlers.discarding());
+        assertThat(invalid.statusCode()).isNotEqualTo(200);
+    }
+
+    @Test
+    void documentsAreListedNewestFirstWithCursors() throws Exception {
+        var first = upload("first.txt", "one".getBytes()).path("documentId").asText();
+        var second = upload("second.txt", "two".getBytes()).path("documentId").asText();
+        var third = upload("third.txt", "three".getBytes()).path("documentId").asText();
+
+        var page = search("/document/list?size=2");
+        assertThat(page.path("content").findValuesAsText("documentId")).containsExactly(third, second);
+        var next = search("/document/list?size=2&cursor=" + page.path("nextCursor").asText());
+        assertThat(next.path("content").findValuesAsText("documentId")).first().isEqualTo(first);
+    }
+
+    private JsonNode search(String path) throws Exception {
+        var response = client.send(HttpRequest.newBuilder(uri(path)).build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).path("data").path("page");
+    }
+
+    private JsonNode upload(String name, byte[] content) throws Exception {
+        var upload = client.send(HttpRequest.newBuilder(uri("/document/upload?name=" + name))
+                .header("Content-Type", "application/octet-stream")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(content)).build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(upload.statusCode()).isEqualTo(201);
+        var document = objectMapper.readTree(upload.body()).path("data").path("document");
+        documentIds.add(document.path("documentId").asText());
+        return document;
+    }
+
+    private void delete(String documentId) throws Exception {
+        var deleted = client.send(HttpRequest.newBuilder(uri("/document/" + documentId)).DELETE().build(),
+                HttpResponse.BodyHandlers.discarding());
+        assertThat(deleted.statusCode()).isEqualTo(200);
+    }
+
+    private Path blob(String documentId) {
+        return storage.resolve(jdbcTemplate.queryForObject("SELECT uri FROM documents WHERE document_id = ?",
+                String.class, documentId));
+    }
+
+    private int refCount(Path blob) {
+        return jdbcTemplate.queryForObject("SELECT ref_count FROM blobs WHERE hash = ?", Integer.class,
+                blob.getFileName().toString());
+    }
+
+    private String createUpload(long size) throws Exception {
+        var created = client.send(HttpRequest.newBuilder(uri("/document/uploads?name=archive.zip&size=" + size))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(created.statusCode()).isEqualTo(201);
+        return objectMapper.readTree(created.body()).path("data").path("upload").path("uploadId").asText();
+    }
+
+    private CompletableFuture<HttpResponse<Void>> putChunk(String uploadId, int index, byte[] content) {
+        int chunkSize = 1024 * 1024;
+        int from = index * chunkSize;
+        var chunk = Arrays.copyOfRange(content, from, Math.min(from + chunkSize, content.length));
+        return client.sendAsync(HttpRequest.newBuilder(uri("/document/uploads/" + uploadId + "/chunks/" + index))
+                .header("Content-Type", "application/octet-stream")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(chunk)).build(), HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> {
+                    assertThat(response.statusCode()).isEqualTo(200);
+                    return response;
+                });
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
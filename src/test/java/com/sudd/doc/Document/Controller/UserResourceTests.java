@@ -0,0 +1,112 @@
+package com.sudd.doc.Document.Controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.sudd.doc.Document.Domain.RequestContext;
+import com.sudd.doc.Document.service.EmailService;
+import com.sudd.doc.Document.utils.TestUsers;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Sql("/seed.sql")
+class UserResourceTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @RegisterExtension
+    final TestUsers users = new TestUsers();
+
+    @MockitoBean
+    private EmailService emailService;
+
+    private String email;
+
+    @BeforeEach
+    void address() {
+        email = users.email("user");
+    }
+
+    @Test
+    void passwordsAreStoredHashed() {
+        users.register(email, "correct horse");
+
+        assertThat(password()).startsWith("{bcrypt}$2a$").doesNotContain("correct horse");
+    }
+
+    @Test
+    void enabledUsersSignInToTheSession() throws Exception {
+        users.register(email, "correct horse");
+        jdbcTemplate.update("UPDATE users SET enabled = true WHERE email = ?", email);
+        var userId = jdbcTemplate.queryForObject("SELECT user_id FROM users WHERE email = ?", UUID.class, email);
+        var id = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+
+        var session = login(email.toUpperCase(), "correct horse")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.userId").value(userId.toString()))
+                .andReturn().getRequest().getSession(false);
+
+        assertThat(session.getAttribute(RequestContext.USER_ID_ATTRIBUTE)).isEqualTo(id);
+    }
+
+    @Test
+    void wrongPasswordsUnknownEmailsAndDisabledUsersAreRefused() throws Exception {
+        users.register(email, "correct horse");
+
+        login(email, "correct horse").andExpect(status().isForbidden());
+        login(email, "wrong horse").andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Invalid email or password"));
+        login("nobody-" + email, "correct horse").andExpect(status().isUnauthorized());
+        login(email, "").andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void plainTextCredentialsAreRehashedOnLogin() throws Exception {
+        users.register(email, "correct horse");
+        jdbcTemplate.update("UPDATE users SET enabled = true WHERE email = ?", email);
+        jdbcTemplate.update("""
+                UPDATE credentials SET password = 'correct horse' WHERE user_id = (SELECT id FROM users WHERE email = ?)
+                """, email);
+
+        login(email, "correct horse").andExpect(status().isOk());
+
+        var rehashed = password();
+        assertThat(rehashed).startsWith("{bcrypt}$2a$04$");
+        // the new hash is used from now on
+        login(email, "correct horse").andExpect(status().isOk());
+        assertThat(password()).isEqualTo(rehashed);
+    }
+
+    private ResultActions login(String email, String password) throws Exception {
+        return mockMvc.perform(post("/user/login").contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"email": "%s", "password": "%s"}
+                        """.formatted(email, password)));
+    }
+
+    private String password() {
+        return jdbcTemplate.queryForObject(
+                "SELECT c.password FROM credentials c JOIN users u ON u.id = c.user_id WHERE u.email = ?", String.class, email);
+    }
+}
@@ -0,0 +1,63 @@
+package com.sudd.doc.Document.Enum;
+
+import static com.sudd.doc.Document.Constant.Constants.MANAGER_AUTHORITIES;
+import static com.sudd.doc.Document.Constant.Constants.USER_AUTHORITIES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.Test;
+
+import com.sudd.doc.Document.Enum.Converter.RoleConvertor;
+
+class AuthorityTests {
+
+    @Test
+    void eachAuthorityIsParsedIntoItsPermissions() {
+        assertThat(Authority.USER.getPermissions()).containsExactlyInAnyOrder(Permission.DOCUMENT_CREATE,
+                Permission.DOCUMENT_READ, Permission.DOCUMENT_UPDATE, Permission.DOCUMENT_DELETE);
+        assertThat(Authority.ADMIN.getPermissions()).contains(Permission.USER_CREATE, Permission.USER_UPDATE)
+                .doesNotContain(Permission.USER_DELETE);
+        assertThat(Authority.SUPER_ADMIN.getPermissions()).containsExactlyInAnyOrder(Permission.values());
+    }
+
+    @Test
+    void theMaskHasOneBitPerPermission() {
+        for (var authority : Authority.values()) {
+            assertThat(Long.bitCount(authority.getPermissionMask())).isEqualTo(authority.getPermissions().size());
+            assertThat(authority.getPermissionMask())
+                    .isEqualTo(Permission.maskOf(authority.getPermissions().toArray(Permission[]::new)));
+        }
+        assertThat(Permission.values()).extracting(Permission::getMask).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void permissionChecksAreMaskTests() {
+        assertThat(Authority.USER.hasPermission(Permission.DOCUMENT_READ)).isTrue();
+        assertThat(Authority.USER.hasPermission(Permission.USER_READ)).isFalse();
+        assertThat(Authority.ADMIN.hasAllPermissions(Permission.maskOf(Permission.USER_CREATE, Permission.DOCUMENT_DELETE)))
+                .isTrue();
+        assertThat(Authority.ADMIN.hasAllPermissions(Permission.maskOf(Permission.USER_CREATE, Permission.USER_DELETE)))
+                .isFalse();
+        assertThat(Authority.USER.hasAllPermissions(0L)).isTrue();
+    }
+
+    @Test
+    void valuesAreResolvedBackToTheirAuthority() {
+        var convertor = new RoleConvertor();
+
+        assertThat(Authority.fromValue(Authority.ADMIN.getValue())).isEqualTo(Authority.ADMIN);
+        assertThat(convertor.convertToEntityAttribute(convertor.convertToDatabaseColumn(Authority.SUPER_ADMIN)))
+                .isEqualTo(Authority.SUPER_ADMIN);
+        assertThatIllegalArgumentException().isThrownBy(() -> Authority.fromValue("document:read"));
+        assertThatIllegalArgumentException().isThrownBy(() -> Permission.fromValue("document:print"));
+    }
+
+    @Test
+    void managerSharesTheValueOfUserAndReadsBackAsUser() {
+        // the value alone cannot tell them apart, the first declared wins; nothing stores authorities by value
+        // today (RolesEntity.authority is @Enumerated(STRING)), and a column that did would lose MANAGER
+        assertThat(MANAGER_AUTHORITIES).isEqualTo(USER_AUTHORITIES);
+        assertThat(Authority.MANAGER.getPermissionMask()).isEqualTo(Authority.USER.getPermissionMask());
+        assertThat(Authority.fromValue(Authority.MANAGER.getValue())).isEqualTo(Authority.USER);
+    }
+}
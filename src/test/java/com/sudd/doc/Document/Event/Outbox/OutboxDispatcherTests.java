@@ -0,0 +1,74 @@
+package com.sudd.doc.Document.Event.Outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import com.sudd.doc.Document.Event.EventType;
+import com.sudd.doc.Document.Exception.ApiException;
+import com.sudd.doc.Document.entity.OutboxEntity;
+import com.sudd.doc.Document.entity.UserEntity;
+import com.sudd.doc.Document.repository.UserRepository;
+import com.sudd.doc.Document.service.OutboxService;
+import com.sudd.doc.Document.utils.UserEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OutboxDispatcherTests {
+
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @Test
+    void theWholeBatchIsSubmittedBeforeAnyResultIsAwaited() {
+        var accepted = message(1);
+        var rejected = message(2);
+        var stuck = message(3);
+        when(outboxService.claim(10)).thenReturn(List.of(accepted, rejected, stuck));
+        var user = new UserEntity();
+        user.setId(7L);
+        when(userRepository.findAllById(anyList())).thenReturn(List.of(user));
+        when(outboxService.fromPayload(anyString())).thenReturn(Map.of());
+
+        var pending = new CompletableFuture<Void>();
+        Iterator<CompletableFuture<Void>> deliveries = List.of(CompletableFuture.<Void>completedFuture(null),
+                CompletableFuture.<Void>failedFuture(new ApiException("Mail queue is full")), pending).iterator();
+        List<Object> published = new ArrayList<>();
+        var dispatcher = new OutboxDispatcher(outboxService, userRepository, event -> {
+            published.add(event);
+            ((UserEvent) event).setDelivery(deliveries.next());
+        }, true, 1, 10, Duration.ofSeconds(1), false, Duration.ofMillis(200), Duration.ofSeconds(1),
+                new SimpleMeterRegistry());
+
+        assertThat(dispatcher.dispatchBatch()).isEqualTo(3);
+
+        assertThat(published).hasSize(3);
+        // each row is marked from its own result
+        verify(outboxService).delivered(List.of(accepted));
+        verify(outboxService).failed(rejected, "Mail queue is full");
+        verify(outboxService).failed(eq(stuck), startsWith("Not accepted within"));
+        // the send that missed the timeout is withdrawn, the retry will send it
+        assertThat(pending).isCancelled();
+    }
+
+    private static OutboxEntity message(long id) {
+        var message = new OutboxEntity(7L, EventType.REGISTRATION, "{}");
+        message.setId(id);
+        message.setAttempts(1);
+        return message;
+    }
+}
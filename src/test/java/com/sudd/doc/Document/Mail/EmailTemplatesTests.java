@@ -0,0 +1,41 @@
+package com.sudd.doc.Document.Mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.sudd.doc.Document.Mail.EmailTemplates.Kind;
+import com.sudd.doc.Document.utils.EmailUtils;
+
+class EmailTemplatesTests {
+
+    private final EmailTemplates templates = new EmailTemplates();
+
+    @Test
+    void textBodyMatchesTheFormerMessages() {
+        var verification = templates.render(Kind.ACCOUNT_VERIFICATION, "Jane", EmailUtils.getverificationUrl("http://localhost", "key"));
+        var reset = templates.render(Kind.PASSWORD_RESET, "Jane", EmailUtils.getResetPasswordUrl("http://localhost", "key"));
+
+        assertThat(verification.text()).isEqualTo(EmailUtils.getEmailMessage("Jane", "http://localhost", "key"));
+        assertThat(reset.text()).isEqualTo(EmailUtils.getResetPasswordMessage("Jane", "http://localhost", "key"));
+    }
+
+    @Test
+    void htmlBodyEscapesValues() {
+        var rendered = templates.render(Kind.ACCOUNT_VERIFICATION, "<b>Jane</b>", "http://localhost/verify/account?key=1&x=2");
+
+        assertThat(rendered.html())
+                .contains("<strong>&lt;b&gt;Jane&lt;/b&gt;</strong>")
+                .contains("href=\"http://localhost/verify/account?key=1&amp;x=2\"")
+                .doesNotContain("{{");
+    }
+
+    @Test
+    void unknownPlaceholderFailsAtCompileTime() {
+        assertThatIllegalArgumentException().isThrownBy(() -> EmailTemplate.compile("Hi {{nmae}}", List.of("name"), false));
+        assertThatIllegalArgumentException().isThrownBy(() -> EmailTemplate.compile("Hi {{name", List.of("name"), false));
+    }
+}
@@ -0,0 +1,83 @@
+package com.sudd.doc.Document.Mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import jakarta.mail.internet.MimeMessage;
+
+class MailDispatcherTests {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Test
+    void sendsManyMessagesOverFewConnections() throws Exception {
+        var sender = sender();
+        var dispatcher = new MailDispatcher(sender, 2, 100, 0, 100, Duration.ofSeconds(30), Duration.ofSeconds(5));
+        dispatcher.start();
+        try {
+            List<CompletableFuture<Void>> results = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                results.add(dispatcher.submit(message(sender, "user" + i + "@securedoc.com")));
+            }
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+            assertThat(greenMail.getReceivedMessages()).hasSize(40);
+            assertThat(dispatcher.getSent()).isEqualTo(40);
+            assertThat(dispatcher.getConnectionsOpened()).isLessThanOrEqualTo(2);
+            assertThat(dispatcher.getQueueDepth()).isZero();
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    void rejectsMessagesWhenTheQueueIsFull() throws Exception {
+        var sender = sender();
+        // one message per second keeps the single worker busy while the queue of 2 fills up
+        var dispatcher = new MailDispatcher(sender, 1, 2, 1, 100, Duration.ofSeconds(30), Duration.ZERO);
+        dispatcher.start();
+        try {
+            List<CompletableFuture<Void>> results = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                results.add(dispatcher.submit(message(sender, "user" + i + "@securedoc.com")));
+            }
+            long rejected = results.stream().filter(CompletableFuture::isCompletedExceptionally).count();
+
+            assertThat(rejected).isGreaterThanOrEqualTo(6);
+            assertThat(dispatcher.getRejected()).isEqualTo(rejected);
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    private static JavaMailSenderImpl sender() {
+        var sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(ServerSetupTest.SMTP.getPort());
+        return sender;
+    }
+
+    private static MimeMessage message(JavaMailSenderImpl sender, String to) throws Exception {
+        MimeMessage message = sender.createMimeMessage();
+        var helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom("noreply@securedoc.com");
+        helper.setTo(to);
+        helper.setSubject("New User Account Verification");
+        helper.setText("Hello");
+        return message;
+    }
+}
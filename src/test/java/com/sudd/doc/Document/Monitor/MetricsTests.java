@@ -0,0 +1,67 @@
+package com.sudd.doc.Document.Monitor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+// tests export no metrics unless asked to
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Sql("/seed.sql")
+class MetricsTests {
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void requestsStatementsCachesAndMailAreScraped() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(get(port, "/user/list?size=5").statusCode()).isEqualTo(200);
+        }
+        jdbcTemplate.queryForObject("SELECT count(*) FROM users", Long.class);
+
+        var scrape = get(managementPort, "/actuator/prometheus");
+
+        assertThat(scrape.statusCode()).isEqualTo(200);
+        assertThat(scrape.body())
+                .contains("http_server_requests_seconds_bucket{application=\"securedoc\"")
+                .containsPattern("http_server_requests_seconds_count\\{[^}]*uri=\"/user/list\"[^}]*} 3")
+                // the listing is one keyset query
+                .containsPattern("securedoc_sql_statements_per_request_count\\{[^}]*uri=\"/user/list\"[^}]*} 3")
+                .containsPattern("securedoc_sql_statements_per_request_sum\\{[^}]*uri=\"/user/list\"[^}]*} 3")
+                .containsPattern("securedoc_sql_statements_seconds_count\\{[^}]*source=\"hibernate\"[^}]*} [1-9]")
+                .containsPattern("securedoc_sql_statements_seconds_count\\{[^}]*source=\"jdbc\"[^}]*} [1-9]")
+                .contains("cache_gets_total{application=\"securedoc\",cache=\"users\",result=\"hit\"}")
+                .contains("cache_gets_total{application=\"securedoc\",cache=\"role-cache\",result=\"miss\"}")
+                .contains("securedoc_mail_queue_depth{application=\"securedoc\"}")
+                .contains("securedoc_mail_latency_seconds_count{application=\"securedoc\"}")
+                .contains("executor_active_threads{application=\"securedoc\",name=\"outbox\"}");
+        // the management port serves nothing of the API, the API port exposes no actuator
+        assertThat(get(port, "/actuator/prometheus").statusCode()).isEqualTo(404);
+    }
+
+    private HttpResponse<String> get(int port, String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
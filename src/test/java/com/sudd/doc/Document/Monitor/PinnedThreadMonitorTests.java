@@ -0,0 +1,83 @@
+package com.sudd.doc.Document.Monitor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.jupiter.api.Test;
+
+class PinnedThreadMonitorTests {
+
+    private final Object monitor = new Object();
+
+    @Test
+    void reportsBlockingInsideSynchronizedOnAVirtualThread() throws Exception {
+        var pinnedThreadMonitor = new PinnedThreadMonitor(true, true, Duration.ofMillis(10));
+        pinnedThreadMonitor.start();
+        try {
+            Thread.ofVirtual().start(this::sleepWhileHoldingMonitor).join();
+            // a ReentrantLock unmounts the virtual thread instead of pinning it
+            Thread.ofVirtual().start(this::sleepWhileHoldingLock).join();
+
+            assertThat(awaitStablePinnedCount(pinnedThreadMonitor)).isEqualTo(1);
+            assertThat(pinnedThreadMonitor.getMaxPinnedTime()).isGreaterThanOrEqualTo(Duration.ofMillis(40));
+            // the innermost application frame
+            assertThat(pinnedThreadMonitor.getSites()).singleElement()
+                    .satisfies(site -> assertThat(site.site()).startsWith(PinnedThreadMonitorTests.class.getName() + ".sleep:"));
+        } finally {
+            pinnedThreadMonitor.stop();
+        }
+    }
+
+    @Test
+    void staysOffWithoutVirtualThreads() {
+        var pinnedThreadMonitor = new PinnedThreadMonitor(false, true, Duration.ofMillis(10));
+        pinnedThreadMonitor.start();
+        pinnedThreadMonitor.stop();
+
+        assertThat(pinnedThreadMonitor.isEnabled()).isFalse();
+    }
+
+    // events reach the stream with the next JFR flush, about once a second: wait for the first one, then until
+    // the count has held for longer than a flush interval so a late event would have shown up
+    private static long awaitStablePinnedCount(PinnedThreadMonitor pinnedThreadMonitor) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        long count = pinnedThreadMonitor.getPinnedCount();
+        long stableSince = System.nanoTime();
+        while (System.nanoTime() < deadline
+                && (count == 0 || System.nanoTime() - stableSince < Duration.ofMillis(1500).toNanos())) {
+            Thread.sleep(100);
+            long current = pinnedThreadMonitor.getPinnedCount();
+            if (current != count) {
+                count = current;
+                stableSince = System.nanoTime();
+            }
+        }
+        return count;
+    }
+
+    private void sleepWhileHoldingMonitor() {
+        synchronized (monitor) {
+            sleep();
+        }
+    }
+
+    private void sleepWhileHoldingLock() {
+        var lock = new ReentrantLock();
+        lock.lock();
+        try {
+            sleep();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.sudd.doc.Document.Security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHasherTests {
+
+    @Test
+    void hashesAreUpgradedFromPlainTextAndLowerStrengths() {
+        var hasher = new PasswordHasher(new SimpleMeterRegistry(), 5, 1, 4, Duration.ofSeconds(5), 1, 4);
+        try {
+            var hash = hasher.encode("secret");
+            assertThat(hash).startsWith("{bcrypt}$2a$05$");
+            assertThat(hasher.matches("secret", hash)).isTrue();
+            assertThat(hasher.matches("Secret", hash)).isFalse();
+            assertThat(hasher.needsUpgrade(hash)).isFalse();
+
+            // credentials stored before hashing existed
+            assertThat(hasher.matches("secret", "secret")).isTrue();
+            assertThat(hasher.matches("secret", "secrets")).isFalse();
+            assertThat(hasher.needsUpgrade("secret")).isTrue();
+
+            var weaker = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret");
+            assertThat(hasher.matches("secret", weaker)).isTrue();
+            assertThat(hasher.needsUpgrade(weaker)).isTrue();
+        } finally {
+            hasher.stop();
+        }
+    }
+
+    @Test
+    void aBatchLargerThanTheImportQueueIsHashedWhole() {
+        // one import thread and one queued hash: most of the batch is refused at first and resubmitted
+        var hasher = new PasswordHasher(new SimpleMeterRegistry(), 4, 1, 1, Duration.ofSeconds(5), 1, 1);
+        try {
+            var passwords = IntStream.range(0, 10).mapToObj(i -> "secret-" + i).toList();
+
+            var hashes = hasher.encodeAll(passwords);
+
+            assertThat(hashes).hasSize(10);
+            for (int i = 0; i < 10; i++) {
+                assertThat(hasher.matches(passwords.get(i), hashes.get(i))).isTrue();
+            }
+        } finally {
+            hasher.stop();
+        }
+    }
+
+    @Test
+    void aSaturatedPoolShedsInsteadOfQueueing() throws Exception {
+        // one thread, one queued hash: of twenty concurrent checks most are refused right away
+        var hasher = new PasswordHasher(new SimpleMeterRegistry(), 12, 1, 1, Duration.ofSeconds(30), 1, 1);
+        var hash = hasher.encode("secret");
+        var callers = Executors.newFixedThreadPool(20);
+        try {
+            var results = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < 20; i++) {
+                results.add(callers.submit((Callable<Boolean>) () -> hasher.matches("secret", hash)));
+            }
+            int checked = 0;
+            int refused = 0;
+            for (var result : results) {
+                try {
+                    assertThat(result.get()).isTrue();
+                    checked++;
+                } catch (ExecutionException exception) {
+                    assertThat(exception.getCause()).isInstanceOfSatisfying(ResponseStatusException.class,
+                            busy -> assertThat(busy.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+                    refused++;
+                }
+            }
+            assertThat(checked).isBetween(1, 19);
+            assertThat(refused).isEqualTo(20 - checked);
+        } finally {
+            callers.shutdownNow();
+            hasher.stop();
+        }
+    }
+}
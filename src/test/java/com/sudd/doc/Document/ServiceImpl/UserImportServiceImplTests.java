@@ -0,0 +1,191 @@
+package com.sudd.doc.Document.ServiceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.sudd.doc.Document.Domain.ImportResult;
+import com.sudd.doc.Document.Domain.ImportResult.RowError;
+import com.sudd.doc.Document.service.EmailService;
+import com.sudd.doc.Document.service.UserImportService;
+import com.sudd.doc.Document.utils.TestUsers;
+
+/**
+ * Batches of three rows so that a handful of lines spans several batches, and
+ * the outbox dispatcher off so the queued verification emails stay in the
+ * table to be checked.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Sql("/seed.sql")
+@TestPropertySource(properties = { "securedoc.import.batch-size=3", "securedoc.import.max-reported-errors=2",
+        "securedoc.outbox.enabled=false" })
+class UserImportServiceImplTests {
+
+    private static final String HEADER = "FirstName,LastName,Email,Password,Bio";
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @RegisterExtension
+    final TestUsers users = new TestUsers();
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @Test
+    void csvRowsAreStoredWithHashedPasswordsAndQueuedEmails() {
+        var emails = List.of(users.email("import"), users.email("import"), users.email("import"), users.email("import"));
+
+        var result = importCsv(HEADER,
+                "Jane,Doe," + emails.get(0) + ",secret,\"Writes, edits \"\"and\"\" reviews\"",
+                "",
+                "John,Doe," + emails.get(1) + ",secret,",
+                "Ada,Lovelace," + emails.get(2) + ",secret,",
+                "Alan,Turing," + emails.get(3) + ",secret,");
+
+        assertThat(result).isEqualTo(new ImportResult(4, 0, List.of()));
+        assertThat(jdbcTemplate.queryForObject("SELECT bio FROM users WHERE email = ?", String.class, emails.get(0)))
+                .isEqualTo("Writes, edits \"and\" reviews");
+        for (var email : emails) {
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT c.password FROM credentials c JOIN users u ON u.id = c.user_id WHERE u.email = ?",
+                    String.class, email)).startsWith("{bcrypt}");
+            // one verification email per user, in the outbox with the user's confirmation key
+            var key = jdbcTemplate.queryForObject(
+                    "SELECT c.key FROM confirmations c JOIN users u ON u.id = c.user_id WHERE u.email = ?",
+                    String.class, email);
+            assertThat(jdbcTemplate.queryForList("""
+                    SELECT o.payload FROM outbox o JOIN users u ON u.id = o.user_id
+                    WHERE u.email = ? AND o.event_type = 'REGISTRATION' AND o.status = 'PENDING'
+                    """, String.class, email)).singleElement().asString().contains(key);
+        }
+    }
+
+    @Test
+    void ndjsonIsImportedThroughTheEndpoint() throws Exception {
+        var first = users.email("import");
+        var second = users.email("import");
+
+        mockMvc.perform(post("/user/import").contentType("application/x-ndjson").content("""
+                {"firstName": "Jane", "lastName": "Doe", "email": "%s", "password": "secret"}
+                {"firstName": "John", "lastName": "Doe", "email": "%s", "password": "secret", "unknown": 1}
+                """.formatted(first, second)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.imported").value(2))
+                .andExpect(jsonPath("$.data.failed").value(0));
+
+        assertThat(jdbcTemplate.queryForList("SELECT first_name FROM users WHERE email IN (?, ?) ORDER BY id",
+                String.class, first, second)).containsExactly("Jane", "John");
+    }
+
+    @Test
+    void invalidRowsFailWithTheirLineAndTheRestIsImported() {
+        var valid = users.email("import");
+        var missingName = users.email("import");
+
+        var result = importNdjson(
+                "{\"firstName\": \"Jane\", \"lastName\": \"Doe\", \"email\": \"not-an-email\", \"password\": \"secret\"}",
+                "{\"firstName\": \"Jane\", \"lastName\": \"Doe\", \"email\": \"" + valid + "\", \"password\": \"secret\"}",
+                "{\"firstName\": \"Jane\", \"lastName\": ",
+                "{\"lastName\": \"Doe\", \"email\": \"" + missingName + "\", \"password\": \"secret\"}");
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.failed()).isEqualTo(3);
+        // the cap keeps the first two
+        assertThat(result.errors()).extracting(RowError::line).containsExactly(1L, 3L);
+        assertThat(result.errors().get(0).message()).isEqualTo("Email should be valid");
+        assertThat(result.errors().get(1).message()).startsWith("Malformed row");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE email IN (?, ?)", Long.class, valid,
+                missingName)).isEqualTo(1);
+    }
+
+    @Test
+    void malformedCsvRowsAreReported() {
+        var valid = users.email("import");
+
+        var result = importCsv(HEADER, "Jane,Doe,only-three-columns", "Jane,Doe," + valid + ",secret,");
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.errors()).singleElement().satisfies(error -> {
+            assertThat(error.line()).isEqualTo(2);
+            assertThat(error.message()).isEqualTo("Malformed row: expected 5 columns but found 3");
+        });
+    }
+
+    @Test
+    void duplicateEmailsFailWithinABatchAcrossBatchesAndAgainstExistingUsers() {
+        var existing = users.register("import");
+        var email = users.email("import");
+
+        var result = importCsv(HEADER,
+                "Jane,Doe," + email + ",secret,",
+                // same batch, different case
+                "Jane,Doe," + email.toUpperCase(Locale.ROOT) + ",secret,",
+                "Jane,Doe," + existing + ",secret,",
+                // second batch, the first one is committed by now
+                "Jane,Doe," + email + ",secret,");
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.failed()).isEqualTo(3);
+        assertThat(result.errors()).extracting(RowError::line).containsExactly(3L, 4L);
+        assertThat(result.errors()).extracting(RowError::message).containsOnly("Email already exists");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE lower(email) = lower(?)", Long.class,
+                email)).isEqualTo(1);
+    }
+
+    @Test
+    void aBatchTheDatabaseRejectsIsRetriedRowByRow() {
+        var first = users.email("import");
+        var rejected = users.email("import");
+        var third = users.email("import");
+
+        // bio is VARCHAR(255): nothing validates it, the insert of the whole batch fails
+        var result = importCsv(HEADER,
+                "Jane,Doe," + first + ",secret,",
+                "Jane,Doe," + rejected + ",secret," + "x".repeat(300),
+                "Jane,Doe," + third + ",secret,");
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.errors()).containsExactly(new RowError(3, rejected, "Rejected by database"));
+        assertThat(jdbcTemplate.queryForList("SELECT email FROM users WHERE email IN (?, ?, ?) ORDER BY id",
+                String.class, first, rejected, third)).containsExactly(first, third);
+    }
+
+    private ImportResult importCsv(String... lines) {
+        return importLines(UserImportService.TEXT_CSV, lines);
+    }
+
+    private ImportResult importNdjson(String... lines) {
+        return importLines(UserImportService.APPLICATION_NDJSON, lines);
+    }
+
+    private ImportResult importLines(MediaType format, String... lines) {
+        var body = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        return userImportService.importUsers(new ByteArrayInputStream(body), format);
+    }
+}
@@ -0,0 +1,223 @@
+package com.sudd.doc.Document.ServiceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.sudd.doc.Document.Domain.UserSummary;
+import com.sudd.doc.Document.Event.EventType;
+import com.sudd.doc.Document.Exception.ApiException;
+import com.sudd.doc.Document.Job.ConfirmationPurgeJob;
+import com.sudd.doc.Document.entity.OutboxEntity;
+import com.sudd.doc.Document.service.EmailService;
+import com.sudd.doc.Document.service.OutboxService;
+import com.sudd.doc.Document.service.UserService;
+import com.sudd.doc.Document.utils.QueryCounter;
+import com.sudd.doc.Document.utils.TestUsers;
+
+@SpringBootTest
+@Sql("/seed.sql")
+class UserServiceImplTests {
+
+    private static final int REGISTRATIONS = 10;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ConfirmationPurgeJob confirmationPurgeJob;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @RegisterExtension
+    final TestUsers users = new TestUsers();
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @Test
+    void registrationUsesPooledIdsAndOneStatementPerTable() {
+        register(); // warm up: first block of ids, role cache
+        QueryCounter.reset();
+
+        for (int i = 0; i < REGISTRATIONS; i++) {
+            register();
+        }
+
+        // users, user_roles, credentials, confirmations and outbox inserts; the role comes from RoleCache
+        assertThat(QueryCounter.count("insert")).isEqualTo(5L * REGISTRATIONS);
+        assertThat(QueryCounter.statements()).noneMatch(sql -> sql.toLowerCase().contains("from roles"));
+        // every entity type draws ids from its own block of 50: at most one nextval each
+        assertThat(QueryCounter.statements()).filteredOn(sql -> sql.contains("nextval")).hasSizeLessThanOrEqualTo(4);
+        assertThat(QueryCounter.statements()).hasSizeLessThanOrEqualTo(5 * REGISTRATIONS + 4);
+    }
+
+    @Test
+    void registrationEmailIsSentFromTheOutbox() throws InterruptedException {
+        var email = register();
+
+        verify(emailService, timeout(10_000)).sendNewAccountEmail(eq("Jane"), eq(email), anyString());
+        // the delivered row is deleted right after the send
+        long pending = 1;
+        for (int i = 0; i < 50 && pending > 0; i++) {
+            Thread.sleep(100);
+            pending = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM outbox o JOIN users u ON u.id = o.user_id WHERE u.email = ?", Long.class, email);
+        }
+        assertThat(pending).isZero();
+    }
+
+    @Test
+    void aWorkerWhoseClaimWasTakenOverCannotMarkTheMessage() {
+        var email = register();
+        // claimed twice: the first worker overran its lease and a second one re-claimed the row
+        var id = jdbcTemplate.queryForObject("""
+                INSERT INTO outbox (event_type, user_id, payload, attempts, available_at, created_by, updated_by)
+                SELECT 'REGISTRATION', id, '{}', 2, now() + interval '1 hour', 0, 0 FROM users WHERE email = ?
+                RETURNING id
+                """, Long.class, email);
+        var stale = new OutboxEntity(null, EventType.REGISTRATION, "{}");
+        stale.setId(id);
+        stale.setAttempts(1);
+
+        outboxService.failed(stale, "timed out");
+        outboxService.delivered(List.of(stale));
+
+        assertThat(jdbcTemplate.queryForMap("SELECT status, attempts, last_error FROM outbox WHERE id = ?", id))
+                .containsEntry("status", "PENDING").containsEntry("attempts", 2).containsEntry("last_error", null);
+
+        stale.setAttempts(2);
+        outboxService.delivered(List.of(stale));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM outbox WHERE id = ?", Long.class, id)).isZero();
+    }
+
+    @Test
+    void aFailedMessageIsRetriedAfterItsBackoff() {
+        var email = register();
+        var id = jdbcTemplate.queryForObject("""
+                INSERT INTO outbox (event_type, user_id, payload, attempts, available_at, created_by, updated_by)
+                SELECT 'REGISTRATION', id, '{}', 2, now() + interval '1 hour', 0, 0 FROM users WHERE email = ?
+                RETURNING id
+                """, Long.class, email);
+        var message = new OutboxEntity(null, EventType.REGISTRATION, "{}");
+        message.setId(id);
+        message.setAttempts(2);
+
+        outboxService.failed(message, "timed out");
+
+        // second attempt: twice the 5s backoff, from the database clock
+        assertThat(jdbcTemplate.queryForMap("""
+                SELECT status, last_error, available_at - now() BETWEEN interval '9 seconds' AND interval '10 seconds' AS backoff
+                FROM outbox WHERE id = ?
+                """, id)).containsEntry("status", "PENDING").containsEntry("last_error", "timed out")
+                .containsEntry("backoff", true);
+    }
+
+    @Test
+    void verificationIsOneStatement() {
+        var email = register();
+        var key = jdbcTemplate.queryForObject(
+                "SELECT c.key FROM confirmations c JOIN users u ON u.id = c.user_id WHERE u.email = ?", String.class, email);
+        QueryCounter.reset();
+
+        userService.VerifyAccountToken(key);
+
+        assertThat(QueryCounter.statements()).hasSize(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT enabled FROM users WHERE email = ?", Boolean.class, email)).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM confirmations WHERE key = ?::uuid", Long.class, key)).isZero();
+        // the key is consumed, a second click is an unknown key
+        assertThatThrownBy(() -> userService.VerifyAccountToken(key))
+                .isInstanceOf(ApiException.class).hasMessage("User Confirmation Key Not Found");
+    }
+
+    @Test
+    void expiredConfirmationIsRejectedAndPurged() {
+        var email = register();
+        var key = jdbcTemplate.queryForObject(
+                "SELECT c.key FROM confirmations c JOIN users u ON u.id = c.user_id WHERE u.email = ?", String.class, email);
+        jdbcTemplate.update("UPDATE confirmations SET created_at = now() - interval '25 hours' WHERE key = ?::uuid", key);
+
+        assertThatThrownBy(() -> userService.VerifyAccountToken(key))
+                .isInstanceOf(ApiException.class).hasMessage("User Confirmation Key Expired");
+        assertThat(jdbcTemplate.queryForObject("SELECT enabled FROM users WHERE email = ?", Boolean.class, email)).isFalse();
+
+        assertThat(confirmationPurgeJob.purge()).isPositive();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM confirmations WHERE key = ?::uuid", Long.class, key)).isZero();
+    }
+
+    @Test
+    void usersAreListedNewestFirstOnePagePerStatement() {
+        var registered = new ArrayList<String>();
+        for (int i = 0; i < 5; i++) {
+            registered.add(0, register());
+        }
+        QueryCounter.reset();
+
+        var first = userService.getUsers(null, 2);
+        var second = userService.getUsers(first.nextCursor(), 2);
+        var third = userService.getUsers(second.nextCursor(), 1);
+
+        assertThat(first.content()).extracting(UserSummary::email).containsExactlyElementsOf(registered.subList(0, 2));
+        assertThat(second.content()).extracting(UserSummary::email).containsExactlyElementsOf(registered.subList(2, 4));
+        assertThat(third.content()).extracting(UserSummary::email).containsExactly(registered.get(4));
+        assertThat(first.content()).extracting(UserSummary::role).containsOnly("USER");
+        // a projection with its role joined in: one statement per page, nothing loaded lazily afterwards
+        assertThat(QueryCounter.statements()).hasSize(3).noneMatch(sql -> sql.toLowerCase().contains("offset"));
+        assertThatThrownBy(() -> userService.getUsers("not-a-cursor", 2)).isInstanceOf(ApiException.class);
+    }
+
+    @Test
+    void persistedEntitiesGetTimeOrderedReferenceIds() {
+        var first = register();
+        var second = register();
+
+        var ids = jdbcTemplate.queryForList("""
+                SELECT reference_id FROM users WHERE email = ?
+                UNION ALL SELECT c.reference_id FROM credentials c JOIN users u ON u.id = c.user_id WHERE u.email = ?
+                UNION ALL SELECT reference_id FROM users WHERE email = ?
+                """, String.class, first, first, second);
+
+        assertThat(ids).hasSize(3).doesNotContainNull().allSatisfy(id -> assertThat(UUID.fromString(id).version()).isEqualTo(7));
+        // the user is persisted before its credentials, and the first registration before the second
+        assertThat(ids).isSorted();
+    }
+
+    @Test
+    void userIdsAndConfirmationKeysAreTimeOrderedUuids() {
+        var first = register();
+        var second = register();
+
+        var userIds = jdbcTemplate.queryForList("SELECT user_id FROM users WHERE email IN (?, ?) ORDER BY id", UUID.class,
+                first, second);
+        var keys = jdbcTemplate.queryForList("""
+                SELECT c.key FROM confirmations c JOIN users u ON u.id = c.user_id WHERE u.email IN (?, ?) ORDER BY u.id
+                """, UUID.class, first, second);
+
+        assertThat(userIds).hasSize(2).allSatisfy(id -> assertThat(id.version()).isEqualTo(7)).isSorted();
+        assertThat(keys).hasSize(2).allSatisfy(key -> assertThat(key.version()).isEqualTo(7)).isSorted();
+    }
+
+    private String register() {
+        return users.register("user");
+    }
+}
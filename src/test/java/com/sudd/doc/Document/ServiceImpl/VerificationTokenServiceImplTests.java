@@ -0,0 +1,50 @@
+package com.sudd.doc.Document.ServiceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import com.sudd.doc.Document.Enum.VerificationMode;
+import com.sudd.doc.Document.Exception.ApiException;
+
+class VerificationTokenServiceImplTests {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private final VerificationTokenServiceImpl tokens =
+            new VerificationTokenServiceImpl(VerificationMode.SIGNED, SECRET, Duration.ofHours(24));
+
+    @Test
+    void signedTokenCarriesTheUserId() {
+        var token = tokens.sign(4242L);
+
+        assertThat(token).hasSize(43);
+        assertThat(tokens.verify(token)).isEqualTo(4242L);
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        var token = tokens.sign(4242L).toCharArray();
+        token[3] = token[3] == 'A' ? 'B' : 'A';
+
+        assertThatThrownBy(() -> tokens.verify(new String(token)))
+                .isInstanceOf(ApiException.class).hasMessage("User Confirmation Key Not Found");
+        assertThatThrownBy(() -> tokens.verify("not a token"))
+                .isInstanceOf(ApiException.class).hasMessage("User Confirmation Key Not Found");
+        // same token from a node with another secret
+        var other = new VerificationTokenServiceImpl(VerificationMode.SIGNED, "", Duration.ofHours(24));
+        assertThatThrownBy(() -> other.verify(tokens.sign(4242L))).isInstanceOf(ApiException.class);
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        var expired = new VerificationTokenServiceImpl(VerificationMode.SIGNED, SECRET, Duration.ofSeconds(-1));
+
+        assertThatThrownBy(() -> tokens.verify(expired.sign(4242L)))
+                .isInstanceOf(ApiException.class).hasMessage("User Confirmation Key Expired");
+    }
+}
@@ -0,0 +1,97 @@
+package com.sudd.doc.Document.repository;
+
+import static com.sudd.doc.Document.utils.QueryCounter.assertStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.sudd.doc.Document.entity.UserEntity;
+import com.sudd.doc.Document.service.EmailService;
+import com.sudd.doc.Document.utils.TestUsers;
+
+/**
+ * Pins the number of statements each lookup prepares. Associations are
+ * lazy, so a lookup loads exactly what its entity graph names; loading ten
+ * users must cost the same single statement as loading one.
+ */
+@SpringBootTest
+@Sql("/seed.sql")
+class FetchPlanTests {
+
+    private static final int USERS = 10;
+
+    @RegisterExtension
+    final TestUsers users = new TestUsers();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CredentialRepository credentialRepository;
+
+    @Autowired
+    private ConfirmationRepository confirmationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    private final List<String> emails = new ArrayList<>();
+
+    @BeforeEach
+    void register() {
+        for (int i = 0; i < USERS; i++) {
+            emails.add(users.register("fetch"));
+        }
+    }
+
+    @Test
+    void loadingUsersByIdLeavesRolesUnloaded() {
+        var ids = emails.stream().map(email -> userRepository.findByEmailIgnoreCase(email).orElseThrow().getId()).toList();
+
+        var one = assertStatements(1, () -> userRepository.findAllById(ids.subList(0, 1)));
+        var all = assertStatements(1, () -> userRepository.findAllById(ids));
+
+        assertThat(one).hasSize(1);
+        assertThat(all).hasSize(USERS).noneMatch(user -> Hibernate.isInitialized(user.getRole()));
+    }
+
+    @Test
+    void userLookupFetchesTheRoleInTheSameStatement() {
+        var user = assertStatements(1, () -> userRepository.findByEmailIgnoreCase(emails.get(0)).orElseThrow());
+
+        assertThat(Hibernate.isInitialized(user.getRole())).isTrue();
+        assertThat(user.getRole().getName()).isEqualTo("USER");
+        assertThat(user.toString()).doesNotContain("role=");
+    }
+
+    @Test
+    void credentialAndConfirmationLookupsDoNotLoadMoreThanAsked() {
+        var userId = userRepository.findByEmailIgnoreCase(emails.get(0)).map(UserEntity::getId).orElseThrow();
+
+        var credential = assertStatements(1, () -> credentialRepository.getCredentailByUserEntityId(userId).orElseThrow());
+        assertThat(credential.getPassword()).startsWith("{bcrypt}").isNotEqualTo("password");
+        assertThat(Hibernate.isInitialized(credential.getUserEntity())).isFalse();
+        assertThat(credential.getUserEntity().getId()).isEqualTo(userId);
+
+        var key = jdbcTemplate.queryForObject("SELECT key FROM confirmations WHERE user_id = ?", UUID.class, userId);
+        var confirmation = assertStatements(1, () -> confirmationRepository.findByKey(key).orElseThrow());
+        assertThat(Hibernate.isInitialized(confirmation.getUserEntity())).isTrue();
+        assertThat(confirmation.getUserEntity().getEmail()).isEqualTo(emails.get(0));
+        assertThat(Hibernate.isInitialized(confirmation.getUserEntity().getRole())).isFalse();
+    }
+}
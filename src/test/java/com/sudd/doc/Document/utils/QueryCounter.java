@@ -0,0 +1,60 @@
+package com.sudd.doc.Document.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Test-only Hibernate StatementInspector that records every SQL statement
+ * Hibernate prepares on the current thread after reset(). A batched INSERT is
+ * prepared once per batch, so the recorded count is the number of JDBC
+ * round-trips, not the number of rows. Statements of background threads (e.g.
+ * the outbox dispatcher) are not recorded.
+ *
+ * Registered for every test context in src/test/resources/application.properties
+ * (spring.jpa.properties.hibernate.session_factory.statement_inspector).
+ * assertStatements pins the number of statements of a use case, so a fetch
+ * plan that turns into N+1 queries fails the build.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        var statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.set(new ArrayList<>());
+    }
+
+    public static List<String> statements() {
+        var statements = STATEMENTS.get();
+        return statements == null ? List.of() : List.copyOf(statements);
+    }
+
+    public static long count(String prefix) {
+        return statements().stream()
+                .filter(sql -> sql.stripLeading().regionMatches(true, 0, prefix, 0, prefix.length()))
+                .count();
+    }
+
+    // runs action and fails, listing what was prepared, unless it prepared exactly `expected` statements
+    public static <T> T assertStatements(int expected, Supplier<T> action) {
+        reset();
+        var result = action.get();
+        var statements = statements();
+        if (statements.size() != expected) {
+            throw new AssertionError("Expected " + expected + " statements but " + statements.size() + " were prepared:\n"
+                    + String.join("\n", statements));
+        }
+        return result;
+    }
+}
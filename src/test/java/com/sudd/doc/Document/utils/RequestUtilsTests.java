@@ -0,0 +1,51 @@
+package com.sudd.doc.Document.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sudd.doc.Document.Domain.Response;
+
+class RequestUtilsTests {
+
+    // as configured by the spring.jackson section of application.yaml
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .build();
+
+    @Test
+    void envelopeIsWrittenWithoutItsEmptyFields() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/user/list");
+        var response = RequestUtils.getResponse(request, Map.of("page", Collections.singletonMap("nextCursor", null)),
+                "Users retrieved", HttpStatus.OK);
+
+        assertThat(objectMapper.writeValueAsString(response)).isEqualTo("""
+                {"time":"%s","code":200,"path":"/user/list","status":"OK","message":"Users retrieved","data":{"page":{}}}"""
+                .formatted(response.time()));
+        assertThat(objectMapper.writeValueAsString(new Response(null, 0, null, null, null, null, Map.of()))).isEqualTo("{}");
+        assertThat(objectMapper.writeValueAsString(Map.of("error",
+                new Response("t", 404, "/x", HttpStatus.NOT_FOUND, "", "Not found", null))))
+                .isEqualTo("""
+                        {"error":{"time":"t","code":404,"path":"/x","status":"NOT_FOUND","exception":"Not found"}}""");
+    }
+
+    @Test
+    void responsesWithinOneMillisecondShareTheirTime() {
+        String first;
+        String second;
+        do {
+            first = RequestUtils.getTime();
+            second = RequestUtils.getTime();
+        } while (!first.equals(second));
+
+        assertThat(second).isSameAs(first).matches("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.\\d{3}");
+    }
+}
@@ -0,0 +1,69 @@
+package com.sudd.doc.Document.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.sudd.doc.Document.service.UserService;
+
+/**
+ * Test-only fixture for the users a test creates, registered per test
+ * instance with @RegisterExtension. Every address handed out by email() or
+ * register() is remembered, and after each test (after its own @AfterEach
+ * methods) those users are deleted again together with everything that
+ * cascades from them.
+ *
+ * Users are deleted newest first, so a user whose created_by points at an
+ * earlier one (an actor registered by the test itself) goes before it.
+ */
+public class TestUsers implements BeforeEachCallback, AfterEachCallback {
+
+    private final List<String> emails = new ArrayList<>();
+    private UserService userService;
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        var applicationContext = SpringExtension.getApplicationContext(context);
+        userService = applicationContext.getBean(UserService.class);
+        jdbcTemplate = applicationContext.getBean(JdbcTemplate.class);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        for (int i = emails.size() - 1; i >= 0; i--) {
+            var email = emails.get(i);
+            jdbcTemplate.update("DELETE FROM user_roles WHERE user_id IN (SELECT id FROM users WHERE lower(email) = lower(?))",
+                    email);
+            jdbcTemplate.update("DELETE FROM users WHERE lower(email) = lower(?)", email); // cascades to the other tables
+        }
+        emails.clear();
+    }
+
+    // a fresh address, for a user the test creates some other way (over HTTP, by import, by renaming)
+    public String email(String prefix) {
+        var email = prefix + "-" + UUID.randomUUID() + "@securedoc.test";
+        track(email);
+        return email;
+    }
+
+    public void track(String email) {
+        emails.add(email);
+    }
+
+    public String register(String prefix) {
+        var email = email(prefix);
+        register(email, "password");
+        return email;
+    }
+
+    public void register(String email, String password) {
+        userService.CreateUser("Jane", "Doe", email, password);
+    }
+}
@@ -0,0 +1,66 @@
+package com.sudd.doc.Document.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class UuidGeneratorTests {
+
+    @Test
+    void generatesVersion7IdsInCreationOrder() {
+        long before = System.currentTimeMillis();
+        var ids = new ArrayList<UUID>();
+        // more than one millisecond's worth of sequence numbers
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(UuidGenerator.generate());
+        }
+
+        assertThat(ids).allSatisfy(id -> {
+            assertThat(id.version()).isEqualTo(7);
+            assertThat(id.variant()).isEqualTo(2);
+        });
+        // the string form sorts like the ids, so does the uuid and text ordering in PostgreSQL
+        assertThat(ids.stream().map(UUID::toString).toList()).isSorted().doesNotHaveDuplicates();
+        assertThat(UuidGenerator.getTimestamp(ids.get(0))).isGreaterThanOrEqualTo(before)
+                .isLessThanOrEqualTo(System.currentTimeMillis());
+    }
+
+    @Test
+    void secureIdsShareTheOrderingOfTheOthers() {
+        var first = UuidGenerator.generate();
+        var secure = UuidGenerator.generateSecure();
+        var last = UuidGenerator.generate();
+
+        assertThat(secure.version()).isEqualTo(7);
+        assertThat(secure.variant()).isEqualTo(2);
+        assertThat(List.of(first, secure, last)).isSorted();
+    }
+
+    @Test
+    void isUniqueAcrossThreads() throws Exception {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                tasks.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        ids.add(i % 2 == 0 ? UuidGenerator.generate() : UuidGenerator.generateSecure());
+                    }
+                }));
+            }
+            for (var task : tasks) {
+                task.get();
+            }
+        }
+
+        assertThat(ids).hasSize(80_000);
+    }
+}
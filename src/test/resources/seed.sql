@@ -0,0 +1,8 @@
+-- system user (id 0) every audit column points at, plus the default USER role
+INSERT INTO users (id, user_id, first_name, last_name, email, enabled, account_non_expired, account_non_locked, created_by, updated_by)
+VALUES (0, '00000000-0000-0000-0000-000000000000', 'System', 'User', 'system@securedoc.com', TRUE, TRUE, TRUE, 0, 0)
+ON CONFLICT DO NOTHING;
+
+INSERT INTO roles (name, authority, created_by, updated_by)
+SELECT 'USER', 'USER', 0, 0
+WHERE NOT EXISTS (SELECT 1 FROM roles WHERE name = 'USER');